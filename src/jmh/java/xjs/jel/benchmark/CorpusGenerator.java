@@ -0,0 +1,297 @@
+package xjs.jel.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates deterministic directory trees of <code>.xjs</code> files for
+ * benchmarks and soak tests. The same builder settings and seed always
+ * produce byte-identical output.
+ *
+ * <p>Imports and requires only ever point at files with a lower index,
+ * so the generated corpus is guaranteed to be free of cycles.
+ */
+public final class CorpusGenerator {
+    private static final int BRANCH = 8;
+    private static final double NEST_CHANCE = 0.15;
+
+    private final long seed;
+    private final int files;
+    private final int membersPerFile;
+    private final int depth;
+    private final int folderDepth;
+    private final double templateDensity;
+    private final double generatorDensity;
+    private final double arithmeticDensity;
+    private final int importFanOut;
+    private final int requireFanOut;
+
+    private CorpusGenerator(final Builder builder) {
+        this.seed = builder.seed;
+        this.files = builder.files;
+        this.membersPerFile = builder.membersPerFile;
+        this.depth = builder.depth;
+        this.folderDepth = builder.folderDepth;
+        this.templateDensity = builder.templateDensity;
+        this.generatorDensity = builder.generatorDensity;
+        this.arithmeticDensity = builder.arithmeticDensity;
+        this.importFanOut = builder.importFanOut;
+        this.requireFanOut = builder.requireFanOut;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static Builder preset(final String size) {
+        switch (size) {
+            case "small": return builder().files(4).membersPerFile(25);
+            case "medium": return builder().files(100).membersPerFile(100);
+            case "large": return builder().files(1_000).membersPerFile(100);
+            default: throw new IllegalArgumentException("unknown size: " + size);
+        }
+    }
+
+    public int totalMembers() {
+        return this.files * this.membersPerFile;
+    }
+
+    public List<File> generate(final File root) throws IOException {
+        final List<File> generated = new ArrayList<>(this.files);
+        for (int i = 0; i < this.files; i++) {
+            final File f = new File(root, this.pathOf(i));
+            final File parent = f.getParentFile();
+            if (!parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Could not create directory: " + parent);
+            }
+            Files.write(f.toPath(), this.generateFile(i).getBytes(StandardCharsets.UTF_8));
+            generated.add(f);
+        }
+        return generated;
+    }
+
+    public String generateFile(final int index) {
+        final Random rand = new Random(this.seed * 31 + index);
+        final StringBuilder sb = new StringBuilder();
+        final List<String> templates = new ArrayList<>();
+
+        this.writeDependencies(sb, rand, index, templates);
+        sb.append("base >> private: { x: ").append(index % 7 + 1)
+            .append(", y: ").append(index % 5 + 2)
+            .append(", name: file_").append(index).append(" }\n");
+        sb.append("tpl_").append(index).append(" >> (a, b): {\n")
+            .append("  sum: $a + $b\n")
+            .append("  label: item $a of file_").append(index).append('\n')
+            .append("}\n");
+        templates.add("tpl_" + index);
+
+        final Emitter emitter = new Emitter(sb, rand, templates, this.membersPerFile);
+        emitter.writeMembers(0);
+        return sb.toString();
+    }
+
+    private void writeDependencies(
+            final StringBuilder sb, final Random rand, final int index, final List<String> templates) {
+        if (index == 0) {
+            return;
+        }
+        final int imports = Math.min(index, this.importFanOut);
+        for (int i = 0; i < imports; i++) {
+            final int dep = rand.nextInt(index);
+            final String name = "tpl_" + dep;
+            if (templates.contains(name)) {
+                continue;
+            }
+            sb.append("{ ").append(name).append(" } >> import from: ")
+                .append(this.pathOf(dep)).append('\n');
+            templates.add(name);
+        }
+        final int requires = Math.min(index, this.requireFanOut);
+        if (requires > 0) {
+            sb.append(">> require: [\n");
+            for (int i = 0; i < requires; i++) {
+                sb.append("  ").append(this.pathOf(rand.nextInt(index))).append('\n');
+            }
+            sb.append("]\n");
+        }
+    }
+
+    private String pathOf(final int index) {
+        final StringBuilder sb = new StringBuilder();
+        final int levels = this.folderDepth > 0 ? index % (this.folderDepth + 1) : 0;
+        for (int l = 0; l < levels; l++) {
+            sb.append('d').append(index / (l + 1) % 3).append('/');
+        }
+        return sb.append("file_").append(index).append(".xjs").toString();
+    }
+
+    private class Emitter {
+        final StringBuilder sb;
+        final Random rand;
+        final List<String> templates;
+        int remaining;
+
+        Emitter(final StringBuilder sb, final Random rand, final List<String> templates, final int members) {
+            this.sb = sb;
+            this.rand = rand;
+            this.templates = templates;
+            this.remaining = members;
+        }
+
+        void writeMembers(final int level) {
+            int count = 0;
+            while (this.remaining > 0 && (level == 0 || count < BRANCH)) {
+                this.remaining--;
+                this.indent(level);
+                this.sb.append('m').append(count++).append(": ");
+                if (level < depth && this.rand.nextDouble() < NEST_CHANCE) {
+                    this.sb.append("{\n");
+                    this.writeMembers(level + 1);
+                    this.indent(level);
+                    this.sb.append("}\n");
+                } else {
+                    this.writeValue();
+                }
+            }
+        }
+
+        void writeValue() {
+            final int n = this.rand.nextInt(100) + 1;
+            double r = this.rand.nextDouble();
+            if ((r -= templateDensity) < 0) {
+                final String t = this.templates.get(this.rand.nextInt(this.templates.size()));
+                this.sb.append('$').append(t).append('(').append(n).append(", $base.x)\n");
+            } else if ((r -= generatorDensity) < 0) {
+                this.sb.setLength(this.sb.length() - 2);
+                this.sb.append(" >> [ 1, 2, 3, $base.y ]: $v * ").append(n).append('\n');
+            } else if ((r -= arithmeticDensity) < 0) {
+                this.sb.append(n).append(" * $base.x + ").append(n / 2).append(" - $base.y / 2\n");
+            } else {
+                switch (this.rand.nextInt(4)) {
+                    case 0: this.sb.append(n).append('\n'); break;
+                    case 1: this.sb.append(n % 2 == 0).append('\n'); break;
+                    case 2: this.sb.append("value ").append(n).append('\n'); break;
+                    default: this.sb.append("$base.name ").append(n).append('\n');
+                }
+            }
+        }
+
+        void indent(final int level) {
+            for (int i = 0; i < level; i++) {
+                this.sb.append("  ");
+            }
+        }
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: CorpusGenerator <dir> [size=<preset>] [key=value...]");
+            System.exit(1);
+        }
+        Builder builder = builder();
+        for (int i = 1; i < args.length; i++) {
+            final String[] kv = args[i].split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("expected key=value: " + args[i]);
+            }
+            builder = kv[0].equals("size") ? preset(kv[1]) : builder.set(kv[0], kv[1]);
+        }
+        final CorpusGenerator generator = builder.build();
+        final List<File> files = generator.generate(new File(args[0]));
+        System.out.println("Generated " + files.size() + " files ("
+            + generator.totalMembers() + " members) in " + args[0]);
+    }
+
+    public static class Builder {
+        private long seed = 42;
+        private int files = 10;
+        private int membersPerFile = 100;
+        private int depth = 3;
+        private int folderDepth = 3;
+        private double templateDensity = 0.2;
+        private double generatorDensity = 0.1;
+        private double arithmeticDensity = 0.2;
+        private int importFanOut = 2;
+        private int requireFanOut = 1;
+
+        private Builder() {}
+
+        public Builder seed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder files(final int files) {
+            this.files = files;
+            return this;
+        }
+
+        public Builder membersPerFile(final int membersPerFile) {
+            this.membersPerFile = membersPerFile;
+            return this;
+        }
+
+        public Builder depth(final int depth) {
+            this.depth = depth;
+            return this;
+        }
+
+        public Builder folderDepth(final int folderDepth) {
+            this.folderDepth = folderDepth;
+            return this;
+        }
+
+        public Builder templateDensity(final double templateDensity) {
+            this.templateDensity = templateDensity;
+            return this;
+        }
+
+        public Builder generatorDensity(final double generatorDensity) {
+            this.generatorDensity = generatorDensity;
+            return this;
+        }
+
+        public Builder arithmeticDensity(final double arithmeticDensity) {
+            this.arithmeticDensity = arithmeticDensity;
+            return this;
+        }
+
+        public Builder importFanOut(final int importFanOut) {
+            this.importFanOut = importFanOut;
+            return this;
+        }
+
+        public Builder requireFanOut(final int requireFanOut) {
+            this.requireFanOut = requireFanOut;
+            return this;
+        }
+
+        private Builder set(final String key, final String value) {
+            switch (key) {
+                case "seed": return this.seed(Long.parseLong(value));
+                case "files": return this.files(Integer.parseInt(value));
+                case "members": return this.membersPerFile(Integer.parseInt(value));
+                case "depth": return this.depth(Integer.parseInt(value));
+                case "folderDepth": return this.folderDepth(Integer.parseInt(value));
+                case "templates": return this.templateDensity(Double.parseDouble(value));
+                case "generators": return this.generatorDensity(Double.parseDouble(value));
+                case "arithmetic": return this.arithmeticDensity(Double.parseDouble(value));
+                case "imports": return this.importFanOut(Integer.parseInt(value));
+                case "requires": return this.requireFanOut(Integer.parseInt(value));
+                default: throw new IllegalArgumentException("unknown option: " + key);
+            }
+        }
+
+        public CorpusGenerator build() {
+            if (this.templateDensity + this.generatorDensity + this.arithmeticDensity > 1) {
+                throw new IllegalArgumentException("densities must not exceed 1");
+            }
+            return new CorpusGenerator(this);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package xjs.jel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xjs.core.JsonValue;
+import xjs.jel.JelContext;
+import xjs.jel.exception.JelException;
+import xjs.jel.sequence.Sequence;
+import xjs.jel.serialization.sequence.Sequencer;
+import xjs.serialization.token.Tokenizer;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvalBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private Sequence<?> sequence;
+
+    @Setup
+    public void setup() throws JelException {
+        this.sequence = Sequencer.JEL.parse(
+            Tokenizer.containerize(SampleConfigs.generate(this.size)));
+    }
+
+    @Benchmark
+    public JsonValue eval() throws JelException {
+        // each evaluation gets a fresh context to avoid leaking globals between runs
+        return new JelContext(null).eval(this.sequence);
+    }
+}
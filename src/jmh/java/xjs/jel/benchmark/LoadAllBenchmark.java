@@ -0,0 +1,68 @@
+package xjs.jel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import xjs.jel.JelContext;
+import xjs.jel.Privilege;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadAllBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private Path root;
+    private List<File> files;
+
+    @Setup
+    public void setup() throws IOException {
+        this.root = Files.createTempDirectory("jel-bench");
+        this.files = CorpusGenerator.preset(this.size).build().generate(this.root.toFile());
+        final JelContext ctx = this.loadAll();
+        if (!ctx.getErrorMap().isEmpty() || ctx.getFileMap().size() != this.files.size()) {
+            throw new IllegalStateException("Expected " + this.files.size() + " outputs, got "
+                + ctx.getFileMap().size() + " with errors: " + ctx.getErrorMap().keySet());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (final Stream<Path> paths = Files.walk(this.root)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    // the corpus is nested deeper than loadAll walks, so every file is loaded by path
+    @Benchmark
+    public JelContext loadAll() {
+        final JelContext ctx = new JelContext(this.root.toFile());
+        for (final File f : this.files) {
+            ctx.getOrLoadFile(f, Privilege.ALL);
+        }
+        return ctx;
+    }
+}
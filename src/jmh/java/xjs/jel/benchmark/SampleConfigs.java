@@ -0,0 +1,46 @@
+package xjs.jel.benchmark;
+
+public final class SampleConfigs {
+
+    private SampleConfigs() {}
+
+    public static int membersFor(final String size) {
+        switch (size) {
+            case "small": return 10;
+            case "medium": return 1_000;
+            case "large": return 25_000;
+            default: throw new IllegalArgumentException("unknown size: " + size);
+        }
+    }
+
+    public static String generate(final String size) {
+        return generate(membersFor(size));
+    }
+
+    public static String generate(final int members) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("base >> private: { x: 1, y: 2, name: sample }\n");
+        sb.append("add >> (a, b): $a + $b\n");
+        sb.append("describe >> (o): {\n  name: $o.name\n  sum: $add($o.x, $o.y)\n}\n");
+        for (int i = 0; i < members; i++) {
+            switch (i % 5) {
+                case 0:
+                    sb.append("m").append(i).append(": ").append(i).append(" + 2 * 3\n");
+                    break;
+                case 1:
+                    sb.append("m").append(i).append(": $add(").append(i).append(", $base.x)\n");
+                    break;
+                case 2:
+                    sb.append("m").append(i).append(" >> [ 1, 2, 3 ]: $v * ").append(i).append('\n');
+                    break;
+                case 3:
+                    sb.append("m").append(i).append(": $describe($base)\n");
+                    break;
+                default:
+                    sb.append("m").append(i).append(": {\n  text: value $base.name ").append(i)
+                        .append("\n  flag: $base.x < $base.y && true\n}\n");
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package xjs.jel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xjs.jel.exception.JelException;
+import xjs.jel.sequence.Sequence;
+import xjs.jel.serialization.sequence.Sequencer;
+import xjs.serialization.token.ContainerToken;
+import xjs.serialization.token.Tokenizer;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SequencerBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private ContainerToken tokens;
+
+    @Setup
+    public void setup() {
+        this.tokens = Tokenizer.containerize(SampleConfigs.generate(this.size));
+    }
+
+    @Benchmark
+    public Sequence<?> parse() throws JelException {
+        return Sequencer.JEL.parse(this.tokens);
+    }
+}
@@ -0,0 +1,42 @@
+package xjs.jel;
+
+/**
+ * Describes what a registered function may do besides computing its
+ * return value. A function with no effects is pure: it may be folded,
+ * memoized, or hoisted out of a generator by the evaluator.
+ */
+public final class Effect {
+
+    private Effect() {}
+
+    public static final int NONE = 0;
+
+    /**
+     * This function may return different values for the same inputs.
+     */
+    public static final int NONDETERMINISTIC = 1;
+
+    /**
+     * This function reads state other than <code>self</code> and its
+     * arguments, such as the current scope.
+     */
+    public static final int CONTEXTUAL = 1 << 1;
+
+    /**
+     * This function writes into the value it was called on.
+     */
+    public static final int MUTATES_SELF = 1 << 2;
+
+    /**
+     * This function invokes callables which were passed into it, and is
+     * only as pure as those callables.
+     */
+    public static final int CALLS_ARGUMENTS = 1 << 3;
+
+    /**
+     * This function reads from or writes to the file system.
+     */
+    public static final int IO = 1 << 4;
+
+    public static final int UNKNOWN = Integer.MAX_VALUE;
+}
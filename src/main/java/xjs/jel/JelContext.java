@@ -11,9 +11,13 @@ import xjs.jel.exception.JelException;
 import xjs.jel.exception.JumpException;
 import xjs.jel.exception.ReturnException;
 import xjs.jel.expression.Expression;
+import xjs.jel.lang.ArgumentBuffers;
+import xjs.jel.lang.CallCache;
+import xjs.jel.lang.IndexCache;
 import xjs.jel.scope.Scope;
 import xjs.jel.sequence.Sequence;
 import xjs.jel.serialization.sequence.Sequencer;
+import xjs.jel.util.LineIndex;
 import xjs.serialization.JsonContext;
 import xjs.serialization.token.ContainerToken;
 import xjs.serialization.token.TokenStream;
@@ -21,10 +25,16 @@ import xjs.serialization.token.TokenType;
 import xjs.serialization.token.Tokenizer;
 import xjs.serialization.util.PositionTrackingReader;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -33,6 +43,10 @@ import java.util.Stack;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
 import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 public class JelContext {
     public static final JelContext GLOBAL_CONTEXT =
@@ -54,6 +68,11 @@ public class JelContext {
     private Scope scope;
     private int privilege;
     private int folderDepth;
+    private @Nullable CallCache callCache;
+    private final IndexCache indexCache;
+    private final ArgumentBuffers argumentBuffers;
+    private SourceRetention sourceRetention;
+    private int writes;
 
     public JelContext(final @Nullable File root) {
         this(root, null);
@@ -75,6 +94,9 @@ public class JelContext {
         this.scope = this.globalScope;
         this.privilege = Privilege.BASIC;
         this.folderDepth = this == GLOBAL_CONTEXT || isGlobal(root) ? 1 : 8;
+        this.indexCache = new IndexCache(IndexCache.DEFAULT_SIZE);
+        this.argumentBuffers = new ArgumentBuffers();
+        this.sourceRetention = SourceRetention.ALWAYS;
     }
 
     private static boolean isGlobal(final @Nullable File root) {
@@ -113,6 +135,15 @@ public class JelContext {
         this.strictPathing = strictPathing;
     }
 
+    public SourceRetention getSourceRetention() {
+        return this.sourceRetention;
+    }
+
+    // only applies to files which are loaded afterward
+    public void setSourceRetention(final SourceRetention sourceRetention) {
+        this.sourceRetention = sourceRetention;
+    }
+
     public Scope getGlobalScope() {
         return this.globalScope;
     }
@@ -127,6 +158,7 @@ public class JelContext {
             return;
         } else if (value instanceof JsonContainer) {
             ((JsonContainer) value).freeze(true);
+            this.indexCache.freeze(value);
         }
         this.globalScope.add(key, new JsonReference(value).freeze());
     }
@@ -143,6 +175,41 @@ public class JelContext {
         this.folderDepth = folderDepth;
     }
 
+    public @Nullable CallCache getCallCache() {
+        return this.callCache;
+    }
+
+    // maximum number of memoized calls, or 0 to disable
+    public void setCallCacheSize(final int size) {
+        this.callCache = size > 0 ? new CallCache(size) : null;
+    }
+
+    public IndexCache getIndexCache() {
+        return this.indexCache;
+    }
+
+    public ArgumentBuffers getArgumentBuffers() {
+        return this.argumentBuffers;
+    }
+
+    public void markEffect() {
+        if (this.callCache != null) {
+            this.callCache.markEffect();
+        }
+    }
+
+    // incremented whenever an existing value may have been modified
+    public int getWrites() {
+        return this.writes;
+    }
+
+    public void markWritten() {
+        this.writes++;
+        if (this.callCache != null) {
+            this.callCache.markWritten();
+        }
+    }
+
     public void loadAll() {
         this.loadRecursive(this.folderDepth, this.root);
         assert this.inProgress.isEmpty() : "memory leak!";
@@ -358,6 +425,9 @@ public class JelContext {
             return null;
         }
         output = this.loadFile(file);
+        if (!output.isError()) {
+            this.indexCache.freezeOutput(output.getValue());
+        }
         this.outputMap.put(path, output);
         this.loadRequired(path);
         assert !this.inProgress.isEmpty() || this.required.isEmpty() : "memory leak!";
@@ -377,13 +447,22 @@ public class JelContext {
         PositionTrackingReader reader = null;
         JsonValue value = null;
         JelException thrown = null;
-        try (final FileInputStream fis = new FileInputStream(file)) {
-            reader = PositionTrackingReader.fromIs(fis, true);
-            final TokenStream stream =
-                new TokenStream(new Tokenizer(reader), TokenType.OPEN);
-            final ContainerToken tokens =
-                Tokenizer.containerize(stream);
-            value = this.eval(path, this.parse(path, tokens));
+        final SourceRetention retention = this.sourceRetention;
+        // only text which may be reread later needs to be checksummed
+        final Output.Stamp stamp = Output.mayReread(retention) ? new Output.Stamp(file) : null;
+        try (final InputStream is = stamp != null ? stamp.open(file) : new FileInputStream(file)) {
+            try {
+                reader = PositionTrackingReader.fromIs(is, true);
+                final TokenStream stream =
+                    new TokenStream(new Tokenizer(reader), TokenType.OPEN);
+                final ContainerToken tokens =
+                    Tokenizer.containerize(stream);
+                value = this.eval(path, this.parse(path, tokens));
+            } finally {
+                if (stamp != null) {
+                    Output.skipRemaining(is);
+                }
+            }
         } catch (final IOException e) {
             thrown = new JelException("Cannot read file", e);
         } catch (final SyntaxException e) {
@@ -396,7 +475,7 @@ public class JelContext {
         }
         this.inProgress.remove(path);
         final String fullText = reader != null ? reader.getFullText().toString() : null;
-        return new Output(value, thrown, fullText);
+        return Output.retain(value, thrown, fullText, file, stamp, retention);
     }
 
     private Output parseNonXjs(final File f) {
@@ -457,6 +536,7 @@ public class JelContext {
     }
 
     public void addOutput(final File file, final JsonValue value) {
+        this.indexCache.freezeOutput(value);
         this.outputMap.put(file.getAbsolutePath(), new Output(value, null, null));
     }
 
@@ -473,6 +553,11 @@ public class JelContext {
         return output != null ? output.getFullText() : null;
     }
 
+    public @Nullable LineIndex getLineIndex(final String absolutePath) {
+        final Output output = this.outputMap.get(absolutePath);
+        return output != null ? output.getLineIndex() : null;
+    }
+
     public @Nullable JelException getError(final String path) {
         final File f = this.resolveFile(path);
         if (f == null) {
@@ -487,6 +572,7 @@ public class JelContext {
     }
 
     public void log(final String s) {
+        this.markEffect();
         if (this.log != null) {
             final LogRecord lr = new LogRecord(Level.INFO, s);
             if (this.outputPrefix) {
@@ -499,6 +585,7 @@ public class JelContext {
     }
 
     public void error(final String s) {
+        this.markEffect();
         if (this.log != null) {
             final LogRecord lr = new LogRecord(Level.SEVERE, s);
             if (this.outputPrefix) {
@@ -534,18 +621,61 @@ public class JelContext {
         this.inProgress.clear();
         this.filesInProgress.clear();
         this.scope.dispose();
+        this.writes++;
+        this.indexCache.clear();
+        if (this.callCache != null) {
+            this.callCache.clear();
+        }
     }
 
     public static class Output {
         private final JsonValue value;
         private final JelException thrown;
-        private final String fullText;
+        private final @Nullable String fullText;
+        private final @Nullable byte[] compressed;
+        private final @Nullable File file;
+        private final @Nullable Stamp stamp;
+        private @Nullable LineIndex lineIndex;
+        private @Nullable SoftReference<LineIndex> released;
 
         private Output(
                 final JsonValue value, final JelException thrown, final String fullText) {
+            this(value, thrown, fullText, null, null, null);
+        }
+
+        private Output(
+                final JsonValue value,
+                final JelException thrown,
+                final @Nullable String fullText,
+                final @Nullable byte[] compressed,
+                final @Nullable File file,
+                final @Nullable Stamp stamp) {
             this.value = value;
             this.thrown = thrown;
             this.fullText = fullText;
+            this.compressed = compressed;
+            this.file = file;
+            this.stamp = stamp;
+        }
+
+        private static Output retain(
+                final JsonValue value,
+                final JelException thrown,
+                final @Nullable String fullText,
+                final File file,
+                final @Nullable Stamp stamp,
+                final SourceRetention retention) {
+            if (fullText == null || retention == SourceRetention.ALWAYS
+                    || (retention == SourceRetention.ERRORS_ONLY && thrown != null)) {
+                return new Output(value, thrown, fullText);
+            } else if (retention == SourceRetention.COMPRESSED) {
+                return new Output(value, thrown, null, compress(fullText), null, null);
+            }
+            return new Output(value, thrown, null, null, file, stamp);
+        }
+
+        private static boolean mayReread(final SourceRetention retention) {
+            return retention == SourceRetention.ERRORS_ONLY || retention == SourceRetention.NEVER;
         }
 
         public boolean isError() {
@@ -562,9 +692,107 @@ public class JelContext {
             return this.thrown;
         }
 
-        // will eventually be null if no error can be thrown
+        // null if the text was not retained and the file has since changed
         public @Nullable String getFullText() {
-            return this.fullText;
+            if (this.fullText != null) {
+                return this.fullText;
+            } else if (this.compressed != null) {
+                return decompress(this.compressed);
+            } else if (this.file != null && this.stamp != null) {
+                return reread(this.file, this.stamp);
+            }
+            return null;
+        }
+
+        // indices of text which is not retained may be reclaimed at any time
+        public @Nullable LineIndex getLineIndex() {
+            if (this.lineIndex != null) {
+                return this.lineIndex;
+            }
+            LineIndex index = this.released != null ? this.released.get() : null;
+            if (index != null) {
+                return index;
+            }
+            final String text = this.getFullText();
+            if (text == null) {
+                return null;
+            }
+            index = LineIndex.of(text);
+            if (this.fullText != null) {
+                this.lineIndex = index;
+            } else {
+                this.released = new SoftReference<>(index);
+            }
+            return index;
+        }
+
+        // the text is read exactly as it was when loaded, including any syntax error
+        private static @Nullable String reread(final File file, final Stamp expected) {
+            final Stamp stamp = new Stamp(file);
+            if (stamp.modified != expected.modified || stamp.length != expected.length) {
+                return null;
+            }
+            try (final InputStream is = stamp.open(file)) {
+                final PositionTrackingReader reader = PositionTrackingReader.fromIs(is, true);
+                try {
+                    Tokenizer.containerize(new TokenStream(new Tokenizer(reader), TokenType.OPEN));
+                } catch (final SyntaxException ignored) {}
+                skipRemaining(is);
+                if (stamp.checksum.getValue() == expected.checksum.getValue()) {
+                    return reader.getFullText().toString();
+                }
+            } catch (final IOException ignored) {}
+            return null;
+        }
+
+        // the checksum must cover every byte, even those after a syntax error
+        private static void skipRemaining(final InputStream is) {
+            final byte[] buffer = new byte[4096];
+            try {
+                while (is.read(buffer) != -1) {}
+            } catch (final IOException ignored) {}
+        }
+
+        private static byte[] compress(final String text) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (final DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+                out.write(text.getBytes(StandardCharsets.UTF_8));
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        private static String decompress(final byte[] compressed) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (final InflaterInputStream in =
+                    new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+                final byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    bytes.write(buffer, 0, read);
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+        // identifies the exact bytes which were loaded from a file
+        private static class Stamp {
+            final long modified;
+            final long length;
+            final CRC32 checksum;
+
+            Stamp(final File file) {
+                this.modified = file.lastModified();
+                this.length = file.length();
+                this.checksum = new CRC32();
+            }
+
+            InputStream open(final File file) throws IOException {
+                return new CheckedInputStream(new FileInputStream(file), this.checksum);
+            }
         }
     }
 }
@@ -10,6 +10,7 @@ import xjs.core.JsonValue;
 import xjs.jel.exception.JelException;
 import xjs.jel.expression.Expression;
 import xjs.jel.expression.LiteralExpression;
+import xjs.jel.lang.JelReflection;
 import xjs.jel.modifier.Modifier;
 import xjs.jel.modifier.TemplateModifier;
 import xjs.jel.sequence.AliasType;
@@ -195,7 +196,7 @@ public class JelMember
 
     public JsonValue getValue(final JelContext ctx) throws JelException {
         final JsonValue formatting = this.getFormatting();
-        return this.expression.apply(ctx)
+        return JelReflection.unshared(this.expression.apply(ctx))
             .setDefaultMetadata(formatting)
             .setFlags(formatting.getFlags());
     }
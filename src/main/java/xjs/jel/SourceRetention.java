@@ -0,0 +1,30 @@
+package xjs.jel;
+
+/**
+ * Determines how much of each file's source text is kept in memory by the
+ * context after the file has been evaluated. The text is only needed to
+ * render errors, so any text which is not kept is read back from disk on
+ * demand, provided the file has not changed since it was evaluated.
+ */
+public enum SourceRetention {
+
+    /**
+     * Every file keeps its full source text.
+     */
+    ALWAYS,
+
+    /**
+     * Every file keeps its source text in a compressed form.
+     */
+    COMPRESSED,
+
+    /**
+     * Only files which failed to evaluate keep their source text.
+     */
+    ERRORS_ONLY,
+
+    /**
+     * No file keeps its source text.
+     */
+    NEVER
+}
@@ -3,6 +3,7 @@ package xjs.jel.exception;
 import org.jetbrains.annotations.Nullable;
 import xjs.exception.SyntaxException;
 import xjs.jel.JelContext;
+import xjs.jel.util.LineIndex;
 import xjs.jel.util.SpanMap;
 import xjs.jel.util.SpanSelector;
 import xjs.jel.util.SpanUtils;
@@ -52,15 +53,20 @@ public class JelException extends Exception {
     }
 
     public JelException withSpan(final JelContext ctx, final Span<?> span) {
-        return this.withSpan(ctx.getScope().getFilePath(), span);
+        return this.withSpan(getFilePath(ctx), span);
     }
 
     public JelException withSpans(final JelContext ctx, final Span<?>... spans) {
-        return this.withSpans(ctx.getScope().getFilePath(), spans);
+        return this.withSpans(getFilePath(ctx), spans);
     }
 
     public JelException withSpans(final JelContext ctx, final Iterable<Span<?>> spans) {
-        return this.withSpans(ctx.getScope().getFilePath(), spans);
+        return this.withSpans(getFilePath(ctx), spans);
+    }
+
+    // constant expressions are evaluated without a context while parsing
+    private static @Nullable String getFilePath(final @Nullable JelContext ctx) {
+        return ctx != null ? ctx.getScope().getFilePath() : null;
     }
 
     public JelException withSpan(
@@ -134,12 +140,12 @@ public class JelException extends Exception {
     private Map<String, String> buildLines(final JelContext ctx, final String fullText) {
         final Map<String, String> lines = new HashMap<>();
         this.spanMap.forEach((path, spans) -> {
-            String text = this.getFullText(ctx, path);
+            LineIndex text = this.getLineIndex(ctx, path);
             if (text == null) {
                 if (path != null) {
                     return; // given text does not correspond
                 }
-                text = fullText;
+                text = fullText != null ? LineIndex.of(fullText) : null;
             }
             spans.sort(Span::compareTo);
             lines.put(path, SpanSelector.underline(text, spans));
@@ -147,8 +153,8 @@ public class JelException extends Exception {
         return lines;
     }
 
-    private String getFullText(final JelContext ctx, final String path) {
-        return ctx != null ? ctx.getFullText(path) : null;
+    private LineIndex getLineIndex(final JelContext ctx, final String path) {
+        return ctx != null && path != null ? ctx.getLineIndex(path) : null;
     }
 
     private String getRelativePath(final JelContext ctx, final String path) {
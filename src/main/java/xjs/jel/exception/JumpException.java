@@ -4,10 +4,17 @@ import org.jetbrains.annotations.Nullable;
 import xjs.core.JsonValue;
 import xjs.serialization.Span;
 
+/**
+ * A signal used to unwind evaluation for <code>return</code> and
+ * <code>yield</code>. Jumps are expected to be caught and are thrown on
+ * every early exit, so they never record a stack trace or suppressed
+ * exceptions.
+ */
 public abstract class JumpException extends RuntimeException {
     private final Span<?> span;
 
     protected JumpException(final Span<?> span) {
+        super(null, null, false, false);
         this.span = span;
     }
 
@@ -11,7 +11,9 @@ import xjs.jel.sequence.ModifyingOperatorSequence;
 import xjs.jel.sequence.Operator;
 import xjs.jel.sequence.OperatorSequence;
 import xjs.jel.sequence.Sequence;
+import xjs.serialization.Span;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class ArithmeticExpression extends OperatorExpression {
@@ -28,22 +30,37 @@ public class ArithmeticExpression extends OperatorExpression {
     }
 
     @Override
-    protected JsonValue calculate(
-            final JelContext ctx,
-            final Sequence<Sequence<?>>.Itr itr,
-            final JsonValue first) throws JelException {
-        if (!this.pureMath && !first.isNumber()) {
-            return super.calculate(ctx, itr, first);
+    protected Expression compile(final JelContext ctx) throws JelException {
+        final Sequence<Sequence<?>>.Itr itr = this.iterator();
+        final Expression first = this.compileValue(ctx, itr);
+        if (this.pureMath) {
+            return new Numeric(first, this.compileNumericSteps(ctx, itr));
         }
-        double out = first.intoDouble();
+        // the path depends on the first value, so each one is compiled on demand
+        return new Dynamic(this, first);
+    }
+
+    protected NumericSteps compileNumericSteps(
+            final JelContext ctx, final Sequence<Sequence<?>>.Itr itr) throws JelException {
+        final List<Operator> ops = new ArrayList<>();
+        final List<Expression> terms = new ArrayList<>();
+        final List<Span<?>> spans = new ArrayList<>();
         while (itr.hasNext()) {
-            out = applyAsNumber(
-                ctx, itr, this.getNextOperator(ctx, itr), out, this.getNextNumber(ctx, itr));
+            ops.add(this.getNextOperator(ctx, itr));
+            terms.add(this.compileNumber(ctx, itr));
+            spans.add(itr.peek(0));
         }
-        return Json.value(out);
+        return new NumericSteps(
+            ops.toArray(new Operator[0]), terms.toArray(new Expression[0]), spans.toArray(new Span<?>[0]));
     }
 
-    protected double getNextNumber(
+    protected Sequence<Sequence<?>>.Itr skipFirst(final JelContext ctx) throws JelException {
+        final Sequence<Sequence<?>>.Itr itr = this.iterator();
+        this.compileValue(ctx, itr);
+        return itr;
+    }
+
+    protected Expression compileNumber(
             final JelContext ctx,
             final Sequence<Sequence<?>>.Itr itr) throws JelException {
         final Sequence<?> next = itr.next();
@@ -65,19 +82,22 @@ public class ArithmeticExpression extends OperatorExpression {
                 throw new JelException("Illegal operand")
                     .withSpan(ctx, after);
             }
-            return this.checkPrecedent(ctx, itr, -((Expression) after).applyAsNumber(ctx));
+            return this.checkPrecedent(ctx, itr, new Negate((Expression) after));
+        }
+        if (!(next instanceof Expression)) {
+            throw new JelException("Illegal operand")
+                .withSpan(ctx, next);
         }
-        return this.checkPrecedent(ctx, itr, ((Expression) next).applyAsNumber(ctx));
+        return this.checkPrecedent(ctx, itr, (Expression) next);
     }
 
-    private double checkPrecedent(
+    private Expression checkPrecedent(
             final JelContext ctx,
-            final Sequence<Sequence<?>>.Itr itr, final double control) throws JelException {
+            final Sequence<Sequence<?>>.Itr itr, final Expression control) throws JelException {
         final Sequence<?> peek = itr.peek();
         if (peek instanceof ArithmeticExpression) {
             itr.next(); // may be unreachable due to parsing (phantom * is inserted)
-            return applyAsNumber(
-                ctx, itr, Operator.MULTIPLY, control, ((Expression) peek).applyAsNumber(ctx));
+            return new Term(Operator.MULTIPLY, control, (Expression) peek, peek);
         } else if (peek instanceof OperatorSequence) {
             final Operator op = ((OperatorSequence) peek).op;
             if (op != Operator.ADD
@@ -85,7 +105,8 @@ public class ArithmeticExpression extends OperatorExpression {
                     && op != Operator.RIGHT_SHIFT
                     && op != Operator.LEFT_SHIFT) {
                 itr.next();
-                return applyAsNumber(ctx, itr, op, control, this.getNextNumber(ctx, itr));
+                final Expression rhs = this.compileNumber(ctx, itr);
+                return new Term(op, control, rhs, itr.peek(0));
             }
         }
         return control;
@@ -93,16 +114,16 @@ public class ArithmeticExpression extends OperatorExpression {
 
     protected static double applyAsNumber(
             final JelContext ctx,
-            final Sequence<Sequence<?>>.Itr itr,
             final Operator op,
             final double a,
-            final double b) throws JelException {
+            final double b,
+            final Span<?> bs) throws JelException {
         switch (op) {
             case ADD: return a + b;
             case SUBTRACT: return a - b;
             case MULTIPLY: return a * b;
-            case DIVIDE: return a / checkDivideByZero(ctx, b, itr);
-            case MOD: return a % checkDivideByZero(ctx, b, itr);
+            case DIVIDE: return a / checkDivideByZero(ctx, b, bs);
+            case MOD: return a % checkDivideByZero(ctx, b, bs);
             case POW: return Math.pow(a, b);
             case BITWISE_AND: return (int) a & (int) b;
             case BITWISE_OR: return (int) a | (int) b;
@@ -114,12 +135,153 @@ public class ArithmeticExpression extends OperatorExpression {
     }
 
     protected static double checkDivideByZero(
-            final JelContext ctx, final double b, final Sequence<Sequence<?>>.Itr itr) throws JelException {
+            final JelContext ctx, final double b, final Span<?> bs) throws JelException {
         if (b == 0) {
-            final Sequence<?> bs = itr.peek(0);
             throw new JelException("Expression divides by zero")
                 .withSpan(ctx, bs);
         }
         return b;
     }
+
+    protected static class NumericSteps {
+        private final Operator[] ops;
+        private final Expression[] terms;
+        private final Span<?>[] spans;
+
+        protected NumericSteps(final Operator[] ops, final Expression[] terms, final Span<?>[] spans) {
+            this.ops = ops;
+            this.terms = terms;
+            this.spans = spans;
+        }
+
+        public double apply(final JelContext ctx, final double first) throws JelException {
+            double out = first;
+            for (int i = 0; i < this.ops.length; i++) {
+                out = applyAsNumber(ctx, this.ops[i], out, this.terms[i].applyAsNumber(ctx), this.spans[i]);
+            }
+            return out;
+        }
+    }
+
+    protected abstract static class NumericNode implements Expression {
+
+        @Override
+        public final JsonValue apply(final JelContext ctx) throws JelException {
+            return Json.value(this.applyAsNumber(ctx));
+        }
+
+        @Override
+        public abstract double applyAsNumber(final JelContext ctx) throws JelException;
+
+        @Override
+        public JsonType getStrongType() {
+            return JsonType.NUMBER;
+        }
+    }
+
+    protected static class Term extends NumericNode {
+        private final Operator op;
+        private final Expression lhs;
+        private final Expression rhs;
+        private final Span<?> span;
+
+        protected Term(final Operator op, final Expression lhs, final Expression rhs, final Span<?> span) {
+            this.op = op;
+            this.lhs = lhs;
+            this.rhs = rhs;
+            this.span = span;
+        }
+
+        @Override
+        public double applyAsNumber(final JelContext ctx) throws JelException {
+            final double a = this.lhs.applyAsNumber(ctx);
+            return ArithmeticExpression.applyAsNumber(ctx, this.op, a, this.rhs.applyAsNumber(ctx), this.span);
+        }
+    }
+
+    protected static class Numeric extends NumericNode {
+        private final Expression first;
+        private final NumericSteps steps;
+
+        protected Numeric(final Expression first, final NumericSteps steps) {
+            this.first = first;
+            this.steps = steps;
+        }
+
+        @Override
+        public double applyAsNumber(final JelContext ctx) throws JelException {
+            return this.steps.apply(ctx, this.first.applyAsNumber(ctx));
+        }
+    }
+
+    protected static class Dynamic implements Expression {
+        private final ArithmeticExpression source;
+        private final Expression first;
+        private final boolean numericFirst;
+        private @Nullable NumericSteps numeric;
+        private @Nullable Steps generic;
+
+        protected Dynamic(final ArithmeticExpression source, final Expression first) {
+            this.source = source;
+            this.first = first;
+            this.numericFirst = first.getStrongType() == JsonType.NUMBER;
+        }
+
+        @Override
+        public JsonValue apply(final JelContext ctx) throws JelException {
+            if (this.numericFirst) {
+                return Json.value(this.getNumeric(ctx).apply(ctx, this.first.applyAsNumber(ctx)));
+            }
+            final JsonValue first = this.peekFirst(ctx);
+            if (!first.isNumber()) {
+                return this.getGeneric(ctx).apply(ctx, this.detach(first));
+            }
+            return Json.value(this.getNumeric(ctx).apply(ctx, first.intoDouble()));
+        }
+
+        @Override
+        public double applyAsNumber(final JelContext ctx) throws JelException {
+            if (this.numericFirst) {
+                return this.getNumeric(ctx).apply(ctx, this.first.applyAsNumber(ctx));
+            }
+            final JsonValue first = this.peekFirst(ctx);
+            if (!first.isNumber()) {
+                return this.getGeneric(ctx).apply(ctx, this.detach(first)).intoDouble();
+            }
+            return this.getNumeric(ctx).apply(ctx, first.intoDouble());
+        }
+
+        // references are only copied when their value is needed as a JSON value
+        private JsonValue peekFirst(final JelContext ctx) throws JelException {
+            if (this.first instanceof ReferenceExpression) {
+                return ((ReferenceExpression) this.first).get(ctx);
+            }
+            return this.first.apply(ctx);
+        }
+
+        private JsonValue detach(final JsonValue first) {
+            if (this.first instanceof ReferenceExpression) {
+                return ReferenceExpression.detach(first);
+            }
+            return first;
+        }
+
+        private NumericSteps getNumeric(final JelContext ctx) throws JelException {
+            NumericSteps numeric = this.numeric;
+            if (numeric == null) {
+                numeric = this.source.compileNumericSteps(ctx, this.source.skipFirst(ctx));
+                this.numeric = numeric;
+            }
+            return numeric;
+        }
+
+        private Steps getGeneric(final JelContext ctx) throws JelException {
+            Steps generic = this.generic;
+            if (generic == null) {
+                generic = this.source.compileSteps(ctx, this.source.skipFirst(ctx));
+                this.generic = generic;
+            }
+            return generic;
+        }
+    }
 }
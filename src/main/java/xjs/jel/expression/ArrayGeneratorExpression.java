@@ -1,5 +1,6 @@
 package xjs.jel.expression;
 
+import org.jetbrains.annotations.Nullable;
 import xjs.core.Json;
 import xjs.core.JsonArray;
 import xjs.core.JsonReference;
@@ -7,67 +8,118 @@ import xjs.core.JsonValue;
 import xjs.jel.JelContext;
 import xjs.jel.JelMember;
 import xjs.jel.exception.JelException;
+import xjs.jel.lang.JelRange;
 import xjs.jel.modifier.Modifier;
+import xjs.jel.scope.LocalSlots;
 import xjs.jel.scope.Scope;
 import xjs.jel.sequence.JelType;
 import xjs.jel.sequence.Sequence;
 
+import java.util.Arrays;
 import java.util.List;
 
 public class ArrayGeneratorExpression extends Sequence.Combined implements Expression {
-    private static final String INDEX_NAME = "i";
-    private static final String VALUE_NAME = "v";
+    public static final String INDEX_NAME = "i";
+    public static final String VALUE_NAME = "v";
 
     private final TupleExpression input;
     private final List<Modifier> captures;
     private final Expression output;
+    private final LocalSlots slots;
+    private @Nullable Expression body;
 
     public ArrayGeneratorExpression(
             final TupleExpression input, final List<Modifier> captures, final Expression output) {
+        this(input, captures, output, newSlots());
+    }
+
+    public ArrayGeneratorExpression(
+            final TupleExpression input,
+            final List<Modifier> captures,
+            final Expression output,
+            final LocalSlots slots) {
         super(JelType.ARRAY_GENERATOR, getSpans(output));
         this.input = input;
         this.captures = captures;
         this.output = output;
+        this.slots = slots;
+    }
+
+    public static LocalSlots newSlots() {
+        return new LocalSlots(Arrays.asList(INDEX_NAME, VALUE_NAME));
     }
 
     @Override
     public JsonArray apply(final JelContext ctx) throws JelException {
         final JsonArray array = new JsonArray();
         final Scope scope = ctx.getScope();
+        this.slots.resolve(this.output, this.captures);
+        final List<Expression> inputs = this.input.expressions;
+        final JsonValue[] values = new JsonValue[inputs.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = this.getInput(ctx, inputs.get(i));
+        }
+        // expanded inputs are read in place rather than copied into one source array
         int i = 0;
-        for (final JsonReference ref : this.buildSource(ctx).references()) {
-            scope.pushFrame();
-            try {
-                scope.add(INDEX_NAME, new JsonReference(Json.value(i++)));
-                scope.add(VALUE_NAME, ref);
-                final Expression modified = Modifier.modify(this.output, this.captures);
-                final JsonValue v = modified.apply(ctx);
-                if (!v.isNull()) {
-                    array.add(v);
+        for (int k = 0; k < values.length; k++) {
+            final JsonValue value = values[k];
+            if (!value.isArray() || !this.isExpansion(inputs.get(k))) {
+                this.generate(ctx, scope, array, i++, new JsonReference(value));
+            } else if (value instanceof JelRange && ((JelRange) value).isVirtual()) {
+                final int min = ((JelRange) value).getMin();
+                final int size = value.asArray().size();
+                for (int j = 0; j < size; j++) {
+                    this.generate(ctx, scope, array, i++, new JsonReference(Json.value(min + j)));
+                }
+            } else {
+                // expanded references are already detached from their source
+                for (final JsonReference ref : value.asArray().references()) {
+                    this.generate(ctx, scope, array, i++, new JsonReference(ref.get()));
                 }
-            } finally {
-                scope.dropFrame();
             }
         }
         return array;
     }
 
-    private JsonArray buildSource(final JelContext ctx) throws JelException {
-        final JsonArray source = new JsonArray();
-        for (final Expression exp : this.input.expressions) {
-            final JsonValue value;
-            if (exp instanceof JelMember) {
-                value = ((JelMember) exp).getValue(ctx);
-            } else {
-                value = exp.apply(ctx);
-            }
-            if (value.isArray() && this.isExpansion(exp)) {
-                source.addAll(value.asArray());
-            } else {
-                source.add(value);
+    private JsonValue getInput(final JelContext ctx, final Expression exp) throws JelException {
+        if (exp instanceof JelMember) {
+            return ((JelMember) exp).getValue(ctx);
+        }
+        return exp.apply(ctx);
+    }
+
+    private void generate(
+            final JelContext ctx,
+            final Scope scope,
+            final JsonArray array,
+            final int i,
+            final JsonReference ref) throws JelException {
+        final JsonReference index = new JsonReference(Json.value(i));
+        scope.pushFrame();
+        final JsonReference[] previous =
+            this.slots.enter(new JsonReference[] { index, ref });
+        try {
+            scope.add(INDEX_NAME, index);
+            scope.add(VALUE_NAME, ref);
+            final JsonValue v = this.getBody().apply(ctx);
+            if (!v.isNull()) {
+                array.add(v);
             }
+        } finally {
+            this.slots.exit(previous);
+            scope.dropFrame();
+        }
+    }
+
+    private Expression getBody() {
+        if (this.body != null) {
+            return this.body;
+        }
+        final Expression exp = Modifier.modify(this.output, this.captures);
+        if (!Modifier.capturesScope(exp)) {
+            this.body = exp;
         }
-        return source;
+        return exp;
     }
 
     protected boolean isExpansion(final Expression exp) {
@@ -14,6 +14,7 @@ import xjs.jel.sequence.OperatorSequence;
 import xjs.jel.sequence.OperatorType;
 import xjs.jel.sequence.Sequence;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class BooleanExpression extends OperatorExpression {
@@ -32,16 +33,19 @@ public class BooleanExpression extends OperatorExpression {
     }
 
     @Override
-    protected JsonValue calculate(
-            final JelContext ctx, final Sequence<Sequence<?>>.Itr itr) throws JelException {
-        boolean out = getNextBoolean(ctx, itr);
+    protected Expression compile(final JelContext ctx) throws JelException {
+        final Sequence<Sequence<?>>.Itr itr = this.iterator();
+        final Expression first = this.compileBoolean(ctx, itr);
+        final List<Operator> ops = new ArrayList<>();
+        final List<Expression> operands = new ArrayList<>();
         while (itr.hasNext()) {
-            out = applyAsBoolean(this.getNextOperator(ctx, itr), out, this.getNextBoolean(ctx, itr));
+            ops.add(this.getNextOperator(ctx, itr));
+            operands.add(this.compileBoolean(ctx, itr));
         }
-        return Json.value(out);
+        return new Logical(first, ops.toArray(new Operator[0]), operands.toArray(new Expression[0]));
     }
 
-    protected boolean getNextBoolean(
+    protected Expression compileBoolean(
             final JelContext ctx, final Sequence<Sequence<?>>.Itr itr) throws JelException {
         final Sequence<?> next = itr.next();
         if (next == null) {
@@ -54,7 +58,7 @@ public class BooleanExpression extends OperatorExpression {
                     .withSpan(ctx, m)
                     .withDetails("Hint: boolean expression only supports '!' modifier");
             }
-            return !getNextBoolean(ctx, itr);
+            return new Not(this.compileBoolean(ctx, itr));
         }
         if (!(next instanceof Expression)) {
             throw new JelException("Illegal operand")
@@ -62,10 +66,9 @@ public class BooleanExpression extends OperatorExpression {
         }
         final Operator relational = getRelationalOperator(itr);
         if (relational != null) {
-            final JsonValue value = ((Expression) next).apply(ctx);
-            return applyRelational(relational, value, getNextValue(ctx, itr));
+            return new Relational(relational, (Expression) next, this.compileValue(ctx, itr));
         }
-        return ((Expression) next).applyAsBoolean(ctx);
+        return (Expression) next;
     }
 
     private static @Nullable Operator getRelationalOperator(final Sequence<Sequence<?>>.Itr itr) {
@@ -89,6 +92,17 @@ public class BooleanExpression extends OperatorExpression {
         return false;
     }
 
+    private static boolean applyRelational(
+            final Operator op, final double lhs, final double rhs) {
+        switch (op) {
+            case GREATER_THAN: return lhs > rhs;
+            case GREATER_THAN_EQUAL_TO: return lhs >= rhs;
+            case LESS_THAN: return lhs < rhs;
+            case LESS_THAN_EQUAL_TO: return lhs <= rhs;
+        }
+        return false;
+    }
+
     private static boolean applyRelational(
             final Operator op, final JsonValue lhs, final JsonValue rhs) {
         switch (op) {
@@ -101,4 +115,82 @@ public class BooleanExpression extends OperatorExpression {
         }
         return false;
     }
+
+    protected static class Logical implements Expression {
+        private final Expression first;
+        private final Operator[] ops;
+        private final Expression[] operands;
+
+        protected Logical(final Expression first, final Operator[] ops, final Expression[] operands) {
+            this.first = first;
+            this.ops = ops;
+            this.operands = operands;
+        }
+
+        @Override
+        public JsonValue apply(final JelContext ctx) throws JelException {
+            return Json.value(this.applyAsBoolean(ctx));
+        }
+
+        @Override
+        public boolean applyAsBoolean(final JelContext ctx) throws JelException {
+            boolean out = this.first.applyAsBoolean(ctx);
+            for (int i = 0; i < this.ops.length; i++) {
+                final Operator op = this.ops[i];
+                if (op == Operator.AND) {
+                    out = out && this.operands[i].applyAsBoolean(ctx);
+                } else if (op == Operator.OR) {
+                    out = out || this.operands[i].applyAsBoolean(ctx);
+                } else {
+                    out = BooleanExpression.applyAsBoolean(op, out, this.operands[i].applyAsBoolean(ctx));
+                }
+            }
+            return out;
+        }
+    }
+
+    protected static class Not implements Expression {
+        private final Expression operand;
+
+        protected Not(final Expression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public JsonValue apply(final JelContext ctx) throws JelException {
+            return Json.value(this.applyAsBoolean(ctx));
+        }
+
+        @Override
+        public boolean applyAsBoolean(final JelContext ctx) throws JelException {
+            return !this.operand.applyAsBoolean(ctx);
+        }
+    }
+
+    protected static class Relational implements Expression {
+        private final Operator op;
+        private final Expression lhs;
+        private final Expression rhs;
+
+        protected Relational(final Operator op, final Expression lhs, final Expression rhs) {
+            this.op = op;
+            this.lhs = lhs;
+            this.rhs = rhs;
+        }
+
+        @Override
+        public JsonValue apply(final JelContext ctx) throws JelException {
+            return Json.value(this.applyAsBoolean(ctx));
+        }
+
+        @Override
+        public boolean applyAsBoolean(final JelContext ctx) throws JelException {
+            if (this.op == Operator.EQUAL_TO || this.op == Operator.NOT_EQUAL_TO) {
+                final JsonValue value = this.lhs.apply(ctx);
+                return applyRelational(this.op, value, this.rhs.apply(ctx));
+            }
+            final double value = this.lhs.applyAsNumber(ctx);
+            return applyRelational(this.op, value, this.rhs.applyAsNumber(ctx));
+        }
+    }
 }
@@ -9,8 +9,10 @@ import xjs.core.JsonValue;
 import xjs.core.StringType;
 import xjs.jel.JelContext;
 import xjs.jel.JelFlags;
+import xjs.jel.lang.JelReflection;
 import xjs.jel.sequence.JelType;
 import xjs.jel.sequence.Sequence;
+import xjs.serialization.Span;
 import xjs.serialization.token.NumberToken;
 import xjs.serialization.token.StringToken;
 import xjs.serialization.token.Token;
@@ -74,6 +76,10 @@ public abstract class LiteralExpression
         return new OfNull(null);
     }
 
+    public static LiteralExpression folded(final Sequence<?> source, final JsonValue value) {
+        return new Folded(source, value);
+    }
+
     protected static JsonValue created(final JsonValue value) {
         return value.setFlags(JelFlags.CREATED);
     }
@@ -176,7 +182,7 @@ public abstract class LiteralExpression
         public JsonValue apply(final JelContext ctx) {
             if (this.created) {
                 this.created = false;
-                return created(this.value);
+                return created(JelReflection.unshared(this.value));
             }
             return this.value;
         }
@@ -197,4 +203,53 @@ public abstract class LiteralExpression
             return JsonType.NULL;
         }
     }
+
+    public static class Folded extends LiteralExpression {
+        private final Sequence<?> source;
+        private final JsonValue value;
+
+        private Folded(final Sequence<?> source, final JsonValue value) {
+            super(source.type(), (List<Token>) null);
+            this.source = source;
+            this.value = value;
+            this.setFullSpan(source, source);
+        }
+
+        public Sequence<?> getSource() {
+            return this.source;
+        }
+
+        @Override
+        public JsonValue apply(final JelContext ctx) {
+            return this.value.deepCopy();
+        }
+
+        @Override
+        public double applyAsNumber(final JelContext ctx) {
+            return this.value.intoDouble();
+        }
+
+        @Override
+        public String applyAsString(final JelContext ctx) {
+            return this.value.intoString();
+        }
+
+        @Override
+        public boolean applyAsBoolean(final JelContext ctx) {
+            return this.value.intoBoolean();
+        }
+
+        @Override
+        public @Nullable JsonType getStrongType() {
+            if (this.source instanceof Expression) {
+                return ((Expression) this.source).getStrongType();
+            }
+            return null;
+        }
+
+        @Override
+        public List<Span<?>> flatten() {
+            return this.source.flatten();
+        }
+    }
 }
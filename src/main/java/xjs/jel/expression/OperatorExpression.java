@@ -1,8 +1,10 @@
 package xjs.jel.expression;
 
+import org.jetbrains.annotations.Nullable;
 import xjs.core.Json;
 import xjs.core.JsonArray;
 import xjs.core.JsonObject;
+import xjs.core.JsonType;
 import xjs.core.JsonValue;
 import xjs.jel.JelContext;
 import xjs.jel.exception.JelException;
@@ -13,10 +15,12 @@ import xjs.jel.sequence.Operator;
 import xjs.jel.sequence.OperatorSequence;
 import xjs.jel.sequence.Sequence;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class OperatorExpression
         extends Sequence.Parent implements Expression {
+    private @Nullable Expression compiled;
 
     public OperatorExpression(
             final List<Sequence<?>> subs) {
@@ -30,25 +34,49 @@ public class OperatorExpression
 
     @Override
     public JsonValue apply(final JelContext ctx) throws JelException {
-        return this.calculate(ctx, this.iterator());
+        return this.getCompiled(ctx).apply(ctx);
     }
 
-    protected JsonValue calculate(final JelContext ctx, final Sequence<Sequence<?>>.Itr itr) throws JelException {
-        return this.calculate(ctx, itr, this.getNextValue(ctx, itr));
+    @Override
+    public double applyAsNumber(final JelContext ctx) throws JelException {
+        return this.getCompiled(ctx).applyAsNumber(ctx);
     }
 
-    protected JsonValue calculate(
-            final JelContext ctx,
-            final Sequence<Sequence<?>>.Itr itr,
-            final JsonValue first) throws JelException {
-        JsonValue out = first;
+    @Override
+    public boolean applyAsBoolean(final JelContext ctx) throws JelException {
+        return this.getCompiled(ctx).applyAsBoolean(ctx);
+    }
+
+    public Expression getCompiled(final JelContext ctx) throws JelException {
+        Expression compiled = this.compiled;
+        if (compiled == null) {
+            compiled = this.compile(ctx);
+            this.compiled = compiled;
+        }
+        return compiled;
+    }
+
+    protected Expression compile(final JelContext ctx) throws JelException {
+        final Sequence<Sequence<?>>.Itr itr = this.iterator();
+        final Expression first = this.compileValue(ctx, itr);
+        if (!itr.hasNext()) {
+            return first;
+        }
+        return new Chain(first, this.compileSteps(ctx, itr));
+    }
+
+    protected Steps compileSteps(
+            final JelContext ctx, final Sequence<Sequence<?>>.Itr itr) throws JelException {
+        final List<Operator> ops = new ArrayList<>();
+        final List<Expression> operands = new ArrayList<>();
         while (itr.hasNext()) {
-            out = apply(this.getNextOperator(ctx, itr), out, this.getNextValue(ctx, itr));
+            ops.add(this.getNextOperator(ctx, itr));
+            operands.add(this.compileValue(ctx, itr));
         }
-        return out;
+        return new Steps(ops.toArray(new Operator[0]), operands.toArray(new Expression[0]));
     }
 
-    protected JsonValue getNextValue(
+    protected Expression compileValue(
             final JelContext ctx,
             final Sequence<Sequence<?>>.Itr itr) throws JelException {
         final Sequence<?> next = itr.next();
@@ -71,18 +99,18 @@ public class OperatorExpression
                 throw new JelException("Illegal operand")
                     .withSpan(ctx, after);
             }
-            return Json.value(-((Expression) after).applyAsNumber(ctx));
+            return new Negate((Expression) after);
         }
         if (!(next instanceof Expression)) {
             throw new JelException("Illegal operand")
                 .withSpan(ctx, next);
         }
-        return ((Expression) next).apply(ctx);
+        return (Expression) next;
     }
 
     protected Operator getNextOperator(
             final JelContext ctx, final Sequence<Sequence<?>>.Itr itr) throws JelException {
-        // hasNext called by calculate
+        // hasNext called by compile
         final Sequence<?> next = itr.next();
         if (next instanceof OperatorSequence) {
             return ((OperatorSequence) next).op;
@@ -190,4 +218,60 @@ public class OperatorExpression
         }
         return Json.value(lhs.intoDouble() * count);
     }
+
+    protected static class Steps {
+        private final Operator[] ops;
+        private final Expression[] operands;
+
+        protected Steps(final Operator[] ops, final Expression[] operands) {
+            this.ops = ops;
+            this.operands = operands;
+        }
+
+        public JsonValue apply(final JelContext ctx, final JsonValue first) throws JelException {
+            JsonValue out = first;
+            for (int i = 0; i < this.ops.length; i++) {
+                out = OperatorExpression.apply(this.ops[i], out, this.operands[i].apply(ctx));
+            }
+            return out;
+        }
+    }
+
+    protected static class Chain implements Expression {
+        private final Expression first;
+        private final Steps steps;
+
+        protected Chain(final Expression first, final Steps steps) {
+            this.first = first;
+            this.steps = steps;
+        }
+
+        @Override
+        public JsonValue apply(final JelContext ctx) throws JelException {
+            return this.steps.apply(ctx, this.first.apply(ctx));
+        }
+    }
+
+    protected static class Negate implements Expression {
+        private final Expression operand;
+
+        protected Negate(final Expression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public JsonValue apply(final JelContext ctx) throws JelException {
+            return Json.value(-this.operand.applyAsNumber(ctx));
+        }
+
+        @Override
+        public double applyAsNumber(final JelContext ctx) throws JelException {
+            return -this.operand.applyAsNumber(ctx);
+        }
+
+        @Override
+        public JsonType getStrongType() {
+            return JsonType.NUMBER;
+        }
+    }
 }
@@ -1,10 +1,10 @@
 package xjs.jel.expression;
 
-import xjs.core.JsonCopy;
 import xjs.core.JsonValue;
 import xjs.jel.JelContext;
 import xjs.jel.JelFlags;
 import xjs.jel.exception.JelException;
+import xjs.jel.lang.JelReflection;
 import xjs.jel.path.JsonPath;
 import xjs.jel.path.PathComponent;
 import xjs.jel.sequence.JelType;
@@ -32,17 +32,30 @@ public class ReferenceExpression
 
     @Override
     public JsonValue apply(final JelContext ctx) throws JelException {
-        JsonValue value = this.get(ctx);
+        return detach(this.get(ctx));
+    }
+
+    public static JsonValue detach(JsonValue value) {
         if (!value.hasFlag(JelFlags.CREATED)) {
-            value = value.copy(JsonCopy.RECURSIVE | JsonCopy.FORMATTING);
+            value = JelReflection.copyShared(value);
         }
         return value.setLinesAbove(-1)
             .setLinesBetween(-1)
             .setFlags(JelFlags.NULL);
     }
 
+    @Override
+    public double applyAsNumber(final JelContext ctx) throws JelException {
+        return this.get(ctx).intoDouble();
+    }
+
     @Override
     public String applyAsString(final JelContext ctx) throws JelException {
         return this.get(ctx).intoString();
     }
+
+    @Override
+    public boolean applyAsBoolean(final JelContext ctx) throws JelException {
+        return this.get(ctx).intoBoolean();
+    }
 }
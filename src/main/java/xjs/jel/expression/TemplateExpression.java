@@ -8,8 +8,12 @@ import xjs.jel.JelContext;
 import xjs.jel.exception.IllegalJelArgsException;
 import xjs.jel.exception.JelException;
 import xjs.jel.exception.ReturnException;
+import xjs.jel.lang.CallCache;
 import xjs.jel.lang.CallableFacade;
+import xjs.jel.lang.JelReflection;
 import xjs.jel.modifier.Modifier;
+import xjs.jel.modifier.TemplateModifier;
+import xjs.jel.scope.LocalSlots;
 import xjs.jel.scope.Scope;
 import xjs.jel.sequence.JelType;
 import xjs.jel.sequence.Sequence;
@@ -22,28 +26,61 @@ public class TemplateExpression
     private final Expression template;
     private final List<Modifier> modifiers;
     private final List<String> params;
+    private final LocalSlots slots;
+    private @Nullable Expression body;
     private @Nullable Scope capture;
 
     public TemplateExpression(
             final Expression template,
             final List<Modifier> modifiers,
             final List<String> params) {
+        this(template, modifiers, params, new LocalSlots(params));
+    }
+
+    public TemplateExpression(
+            final Expression template,
+            final List<Modifier> modifiers,
+            final List<String> params,
+            final LocalSlots slots) {
         super(JelType.TEMPLATE, getSubs(template));
         this.template = template;
         this.modifiers = modifiers;
         this.params = params;
+        this.slots = slots;
     }
 
     @Override
     public Expression call(
             final JsonValue self, final JelContext ctx, final JsonValue... args) throws JelException {
         this.checkArgs(args);
+        final CallCache cache = ctx.getCallCache();
+        if (cache == null || this.capture == null) {
+            return this.invoke(ctx, args);
+        }
+        final CallCache.Key key = new CallCache.Key(this, this.capture, self, args);
+        final JsonValue cached = cache.get(key);
+        if (cached != null) {
+            return LiteralExpression.of(JelReflection.copyShared(cached));
+        }
+        final long effects = cache.getEffects();
+        final Expression exp = this.invoke(ctx, args);
+        if (exp instanceof Callable || cache.getEffects() != effects) {
+            return exp;
+        }
+        final JsonValue value = exp.apply(ctx);
+        cache.put(key, JelReflection.copyShared(value));
+        return LiteralExpression.of(value);
+    }
+
+    protected Expression invoke(final JelContext ctx, final JsonValue... args) throws JelException {
         final Scope scope = this.getScope(ctx);
         scope.pushFrame();
-        this.putArgsInScope(scope, args);
+        final JsonReference[] refs = this.putArgsInScope(scope, args);
 
-        final Expression exp = Modifier.modify(this.template, this.modifiers);
+        final Expression exp = this.getBody();
         ctx.pushScope(scope);
+        this.resolveSlots();
+        final JsonReference[] previous = this.slots.enter(refs);
 
         try {
             if (exp instanceof Callable) {
@@ -66,11 +103,34 @@ public class TemplateExpression
             }
             return LiteralExpression.of(returned);
         } finally {
+            this.slots.exit(previous);
             ctx.dropScope();
             scope.dropFrame();
         }
     }
 
+    protected Expression getBody() {
+        if (this.body != null) {
+            return this.body;
+        }
+        final Expression exp = Modifier.modify(this.template, this.modifiers);
+        if (!Modifier.capturesScope(exp)) {
+            this.body = exp;
+        }
+        return exp;
+    }
+
+    protected void resolveSlots() {
+        for (final Modifier modifier : this.modifiers) {
+            if (modifier instanceof TemplateModifier) {
+                // the body becomes a closure which outlives this call
+                this.slots.disable();
+                return;
+            }
+        }
+        this.slots.resolve(this.template, this.modifiers);
+    }
+
     protected void checkArgs(final JsonValue... values) throws JelException {
         final int expected = this.params.size();
         if (values.length != expected) {
@@ -83,10 +143,13 @@ public class TemplateExpression
         return this.capture != null ? this.capture : ctx.getScope();
     }
 
-    protected void putArgsInScope(final Scope scope, final JsonValue... args) {
-        for (int i = 0; i < this.params.size(); i++) {
-            scope.add(this.params.get(i), new JsonReference(args[i]));
+    protected JsonReference[] putArgsInScope(final Scope scope, final JsonValue... args) {
+        final JsonReference[] refs = new JsonReference[this.params.size()];
+        for (int i = 0; i < refs.length; i++) {
+            refs[i] = new JsonReference(args[i]);
+            scope.add(this.params.get(i), refs[i]);
         }
+        return refs;
     }
 
     @Override
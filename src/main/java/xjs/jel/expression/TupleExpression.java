@@ -30,6 +30,17 @@ public class TupleExpression
         return expressions;
     }
 
+    @Override
+    public void replace(final int index, final Sequence<?> sub) {
+        final Span<?> previous = this.subs.get(index);
+        super.replace(index, sub);
+        for (int i = 0; i < this.expressions.size(); i++) {
+            if (this.expressions.get(i) == previous && sub instanceof Expression) {
+                this.expressions.set(i, (Expression) sub);
+            }
+        }
+    }
+
     @Override
     public JsonArray apply(final JelContext ctx) throws JelException {
         final JsonArray array = new JsonArray();
@@ -0,0 +1,65 @@
+package xjs.jel.lang;
+
+import xjs.core.JsonValue;
+
+import java.util.Arrays;
+
+/**
+ * Argument arrays which are reused between calls evaluated by a single
+ * context. Each context owns its buffers, so that parsed expressions may be
+ * evaluated by any number of contexts at once.
+ *
+ * <p>Buffers are taken for the duration of one call and returned when it
+ * completes. Reentrant calls simply take another buffer. Only small
+ * arities are pooled, and only up to a fixed number of buffers each.
+ */
+public final class ArgumentBuffers {
+    public static final int MAX_ARITY = 8;
+    public static final int MAX_FREE = 64;
+
+    private final JsonValue[][][] free;
+    private final int[] sizes;
+
+    public ArgumentBuffers() {
+        this.free = new JsonValue[MAX_ARITY][][];
+        this.sizes = new int[MAX_ARITY];
+    }
+
+    public JsonValue[] take(final int arity) {
+        if (arity >= MAX_ARITY) {
+            return new JsonValue[arity];
+        }
+        final int size = this.sizes[arity];
+        if (size == 0) {
+            return new JsonValue[arity];
+        }
+        final JsonValue[][] stack = this.free[arity];
+        final JsonValue[] buffer = stack[size - 1];
+        stack[size - 1] = null;
+        this.sizes[arity] = size - 1;
+        return buffer;
+    }
+
+    public void release(final JsonValue[] buffer) {
+        final int arity = buffer.length;
+        if (arity >= MAX_ARITY) {
+            return;
+        }
+        final int size = this.sizes[arity];
+        JsonValue[][] stack = this.free[arity];
+        if (stack == null || size == stack.length) {
+            if (size >= MAX_FREE) {
+                return;
+            }
+            stack = stack == null ? new JsonValue[4][] : Arrays.copyOf(stack, size * 2);
+            this.free[arity] = stack;
+        }
+        Arrays.fill(buffer, null);
+        stack[size] = buffer;
+        this.sizes[arity] = size + 1;
+    }
+
+    public int size(final int arity) {
+        return arity < MAX_ARITY ? this.sizes[arity] : 0;
+    }
+}
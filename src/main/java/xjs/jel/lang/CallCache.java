@@ -0,0 +1,170 @@
+package xjs.jel.lang;
+
+import org.jetbrains.annotations.Nullable;
+import xjs.core.JsonObject;
+import xjs.core.JsonValue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache of values returned by templates and
+ * pure functions, keyed on the structure of their arguments.
+ *
+ * <p>Callers should only store a value when no side effect was {@link
+ * #markEffect observed} while it was being computed. Any write into an
+ * existing value {@link #markWritten invalidates} every entry, since the
+ * inputs of a cached call can no longer be trusted.
+ *
+ * <p>Note that this cache is only consulted when configured by the
+ * application. Templates are keyed on the object they are called from,
+ * and functions are only memoized when called on a scalar value.
+ */
+public final class CallCache {
+    private final Map<Key, JsonValue> entries;
+    private long hits;
+    private long misses;
+    private long effects;
+
+    public CallCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.entries = new LinkedHashMap<Key, JsonValue>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, JsonValue> eldest) {
+                return this.size() > maxSize;
+            }
+        };
+    }
+
+    public @Nullable JsonValue get(final Key key) {
+        final JsonValue value = this.entries.get(key);
+        if (value != null) {
+            this.hits++;
+        } else {
+            this.misses++;
+        }
+        return value;
+    }
+
+    public void put(final Key key, final JsonValue value) {
+        this.entries.put(key, value);
+    }
+
+    public long getEffects() {
+        return this.effects;
+    }
+
+    public void markEffect() {
+        this.effects++;
+    }
+
+    public void markWritten() {
+        this.effects++;
+        this.entries.clear();
+    }
+
+    public long getHits() {
+        return this.hits;
+    }
+
+    public long getMisses() {
+        return this.misses;
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    public void clear() {
+        this.entries.clear();
+        this.hits = 0;
+        this.misses = 0;
+    }
+
+    public static int hash(final JsonValue value) {
+        if (value.isObject()) {
+            int h = 1;
+            for (final JsonObject.Member m : value.asObject()) {
+                h += m.getKey().hashCode() ^ hash(m.getOnly());
+            }
+            return h;
+        } else if (value.isArray()) {
+            int h = 2;
+            for (final JsonValue v : value.asArray()) {
+                h = 31 * h + hash(v);
+            }
+            return h;
+        } else if (value.isNumber()) {
+            return Double.hashCode(value.intoDouble());
+        } else if (value.isString()) {
+            return value.intoString().hashCode();
+        } else if (value.isBoolean()) {
+            return Boolean.hashCode(value.intoBoolean());
+        }
+        return 0;
+    }
+
+    public static class Key {
+        private final Object callee;
+        private final @Nullable Object context;
+        private final @Nullable JsonValue self;
+        private final JsonValue[] args;
+        private final int hash;
+
+        public Key(
+                final Object callee,
+                final @Nullable Object context,
+                final @Nullable JsonValue self,
+                final JsonValue[] args) {
+            this.callee = callee;
+            this.context = context;
+            this.self = self;
+            this.args = args.clone();
+            this.hash = this.computeHash();
+        }
+
+        private int computeHash() {
+            int h = System.identityHashCode(this.callee);
+            h = 31 * h + System.identityHashCode(this.context);
+            h = 31 * h + (this.self != null ? hash(this.self) : 0);
+            for (final JsonValue arg : this.args) {
+                h = 31 * h + hash(arg);
+            }
+            return h;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            } else if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            if (this.hash != other.hash
+                    || this.callee != other.callee
+                    || this.context != other.context
+                    || this.args.length != other.args.length
+                    || !matches(this.self, other.self)) {
+                return false;
+            }
+            for (int i = 0; i < this.args.length; i++) {
+                if (!this.args[i].matches(other.args[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean matches(final @Nullable JsonValue a, final @Nullable JsonValue b) {
+            return a == null ? b == null : b != null && a.matches(b);
+        }
+    }
+}
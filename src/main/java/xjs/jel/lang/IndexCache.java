@@ -0,0 +1,181 @@
+package xjs.jel.lang;
+
+import org.jetbrains.annotations.Nullable;
+import xjs.core.JsonArray;
+import xjs.core.JsonObject;
+import xjs.core.JsonReference;
+import xjs.core.JsonValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hash indices over arrays of objects which are searched repeatedly by
+ * {@link JelFunctions#find find}, keyed on the first member of the matcher.
+ *
+ * <p>Only arrays which were {@link #freeze frozen} by the context, such as
+ * those defined as globals, or which belong to a loaded {@link
+ * #freezeOutput output} are ever indexed, and only after they have been
+ * scanned a few times. Any other array may be modified at any time and is
+ * always scanned.
+ */
+public final class IndexCache {
+    public static final int DEFAULT_SIZE = 64;
+    public static final int SCAN_THRESHOLD = 3;
+
+    private final Map<Key, Entry> entries;
+    private final Set<JsonArray> frozen;
+    private final Set<JsonArray> outputs;
+    private long hits;
+    private long misses;
+
+    public IndexCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+                return this.size() > maxSize;
+            }
+        };
+        this.frozen = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.outputs = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    // every array in the value may be indexed regardless of writes
+    public void freeze(final JsonValue value) {
+        collectArrays(this.frozen, value);
+    }
+
+    // arrays which are only written by the evaluator, indexed until the next write
+    public void freezeOutput(final JsonValue value) {
+        collectArrays(this.outputs, value);
+    }
+
+    private static void collectArrays(final Set<JsonArray> arrays, final JsonValue value) {
+        if (value.isArray()) {
+            arrays.add(value.asArray());
+            for (final JsonReference r : value.asArray().references()) {
+                collectArrays(arrays, r.getOnly());
+            }
+        } else if (value.isObject()) {
+            for (final JsonObject.Member m : value.asObject()) {
+                collectArrays(arrays, m.getOnly());
+            }
+        }
+    }
+
+    // writes is the number of writes recorded by the context
+    public @Nullable JsonValue find(final JsonArray array, final JsonObject matcher, final int writes) {
+        if (matcher.size() == 0) {
+            return scan(array, matcher);
+        }
+        final boolean output = !this.frozen.contains(array);
+        if (output && !this.outputs.contains(array)) {
+            return scan(array, matcher);
+        }
+        final Entry entry = this.entries.computeIfAbsent(new Key(array), k -> new Entry());
+        if (output && entry.writes != writes) {
+            entry.byKey.clear();
+            entry.writes = writes;
+        }
+        if (entry.scans < SCAN_THRESHOLD) {
+            entry.scans++;
+            this.misses++;
+            return scan(array, matcher);
+        }
+        this.hits++;
+        final String key = matcher.keys().get(0);
+        for (final JsonReference r : entry.lookup(array, key, matcher.get(key))) {
+            final JsonValue v = r.getOnly();
+            if (v.isObject() && JelFunctions.matches(v.asObject(), matcher)) {
+                return r.get();
+            }
+        }
+        return null;
+    }
+
+    private static @Nullable JsonValue scan(final JsonArray array, final JsonObject matcher) {
+        for (final JsonReference r : array.references()) {
+            final JsonValue v = r.getOnly();
+            if (v.isObject() && JelFunctions.matches(v.asObject(), matcher)) {
+                return r.get();
+            }
+        }
+        return null;
+    }
+
+    public long getHits() {
+        return this.hits;
+    }
+
+    public long getMisses() {
+        return this.misses;
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    public void clear() {
+        this.entries.clear();
+        this.hits = 0;
+        this.misses = 0;
+    }
+
+    private static class Entry {
+        final Map<String, Map<Integer, List<JsonReference>>> byKey = new HashMap<>();
+        int scans;
+        int writes;
+
+        List<JsonReference> lookup(final JsonArray array, final String key, final JsonValue value) {
+            Map<Integer, List<JsonReference>> index = this.byKey.get(key);
+            if (index == null) {
+                index = build(array, key);
+                this.byKey.put(key, index);
+            }
+            return index.getOrDefault(CallCache.hash(value), Collections.emptyList());
+        }
+
+        // buckets preserve the order of the array, so the first match is unchanged
+        static Map<Integer, List<JsonReference>> build(final JsonArray array, final String key) {
+            final Map<Integer, List<JsonReference>> index = new HashMap<>();
+            for (final JsonReference r : array.references()) {
+                final JsonValue v = r.getOnly();
+                if (!v.isObject()) {
+                    continue;
+                }
+                final JsonReference field = v.asObject().getReference(key);
+                if (field != null) {
+                    index.computeIfAbsent(CallCache.hash(field.getOnly()), h -> new ArrayList<>()).add(r);
+                }
+            }
+            return index;
+        }
+    }
+
+    private static class Key {
+        final JsonArray array;
+
+        Key(final JsonArray array) {
+            this.array = array;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.array);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Key && ((Key) o).array == this.array;
+        }
+    }
+}
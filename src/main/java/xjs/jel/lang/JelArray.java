@@ -11,6 +11,7 @@ import java.util.List;
 
 public class JelArray extends JsonArray implements JelContainer {
     private final List<JsonReference> declared;
+    private transient boolean shared;
 
     public JelArray() {
         this(new ArrayList<>(), new ArrayList<>());
@@ -47,6 +48,14 @@ public class JelArray extends JsonArray implements JelContainer {
         return this;
     }
 
+    // the caller may write into the value, so it can't be shared with another parent
+    @Override
+    public JsonValue get(final int idx) {
+        final JsonReference ref = this.getReference(idx);
+        JelReflection.unshare(ref);
+        return ref.get();
+    }
+
     @Override
     public JsonReference getDeclaredReference(final int idx) {
         return this.declared.get(idx);
@@ -90,9 +99,27 @@ public class JelArray extends JsonArray implements JelContainer {
         return this.declared.size();
     }
 
+    @Override
+    public boolean isShared() {
+        return this.shared;
+    }
+
+    @Override
+    public void markShared() {
+        this.shared = true;
+    }
+
+    @Override
+    public JelArray copyShared() {
+        return this.copy(JelContainer.shareReferences(this.declared), JsonCopy.FORMATTING);
+    }
+
     @Override
     public JelArray copy(final int options) {
-        final List<JsonReference> declaredCopy = copyReferences(this.declared, options);
+        return this.copy(copyReferences(this.declared, options), options);
+    }
+
+    private JelArray copy(final List<JsonReference> declaredCopy, final int options) {
         final List<JsonReference> visible = new ArrayList<>();
 
         for (final JsonReference reference : declaredCopy) {
@@ -1,12 +1,15 @@
 package xjs.jel.lang;
 
 import xjs.core.JsonContainer;
+import xjs.core.JsonCopy;
 import xjs.core.JsonReference;
 import xjs.core.JsonValue;
 import xjs.jel.JelFlags;
 import xjs.jel.expression.Callable;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 public interface JelContainer {
 
@@ -26,12 +29,45 @@ public interface JelContainer {
 
     int declaredSize();
 
+    /**
+     * Indicates that this container may be referenced by more than one
+     * parent and must be copied before it is modified.
+     *
+     * <p>Shared children stay shared in the output of the evaluator. They
+     * are copied one level at a time when handed out by {@code get}, since
+     * the caller may write into them.
+     */
+    boolean isShared();
+
+    void markShared();
+
+    /**
+     * Copies this container without copying any of its child containers.
+     * The children are instead marked as shared and will be copied by
+     * whichever side first writes into them.
+     */
+    JsonContainer copyShared();
+
     static boolean isVisible(final JsonValue value) {
         return !(value instanceof Callable)
             && !value.hasFlag(JelFlags.VAR)
             && !value.hasFlag(JelFlags.PRIVATE);
     }
 
+    static List<JsonReference> shareReferences(final List<JsonReference> references) {
+        final List<JsonReference> shared = new ArrayList<>(references.size());
+        for (final JsonReference reference : references) {
+            final JsonValue value = reference.getOnly();
+            if (value instanceof JelContainer) {
+                ((JelContainer) value).markShared();
+                shared.add(new JsonReference(value));
+            } else {
+                shared.add(new JsonReference(value.copy(JsonCopy.RECURSIVE | JsonCopy.FORMATTING)));
+            }
+        }
+        return shared;
+    }
+
     static int indexOfExactly(
             final Collection<JsonReference> references, final JsonReference value) {
         int i = 0;
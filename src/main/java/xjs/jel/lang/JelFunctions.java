@@ -7,6 +7,7 @@ import xjs.core.JsonFormat;
 import xjs.core.JsonObject;
 import xjs.core.JsonReference;
 import xjs.core.JsonValue;
+import xjs.jel.Effect;
 import xjs.jel.JelContext;
 import xjs.jel.JelMember;
 import xjs.jel.Privilege;
@@ -28,56 +29,59 @@ import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static xjs.jel.expression.LiteralExpression.of;
 import static xjs.jel.expression.LiteralExpression.ofNull;
 
 public final class JelFunctions {
     private static final Map<String, Function> FUNCTIONS = new ConcurrentHashMap<>();
+    private static final AtomicInteger VERSION = new AtomicInteger();
     private static final Random RAND = new Random();
 
     static {
-        register("dir", JelFunctions::dir);
-        register("min", JelFunctions::min);
-        register("max", JelFunctions::max);
-        register("rand", JelFunctions::rand);
-        register("size", JelFunctions::size);
-        register("hash", JelFunctions::hash);
-        register("startsWith", JelFunctions::startsWith);
-        register("endsWith", JelFunctions::endsWith);
-        register("endsWith", JelFunctions::endsWith);
-        register("contains", JelFunctions::contains);
-        register("has", JelFunctions::has);
-        register("remove", JelFunctions::remove);
-        register("replace", JelFunctions::replace);
-        register("matches", JelFunctions::matches);
-        register("lowercase", JelFunctions::lowercase);
-        register("uppercase", JelFunctions::uppercase);
-        register("coalesce", Privilege.EXPERIMENTAL, JelFunctions::coalesce);
-        register("orElse", JelFunctions::orElse);
-        register("find", Privilege.EXPERIMENTAL, JelFunctions::find);
-        register("range", Privilege.EXPERIMENTAL, JelFunctions::range);
-        register("round", JelFunctions::round);
-        register("file", Privilege.IO, JelFunctions::file);
-        register("keys", JelFunctions::keys);
-        register("values", JelFunctions::values);
-        register("time", JelFunctions::time);
-        register("type", JelFunctions::type);
-        register("pretty", JelFunctions::pretty);
-        register("parse", JelFunctions::parse);
-        register("isString", JelFunctions::isString);
-        register("isNumber", JelFunctions::isNumber);
-        register("isBool", JelFunctions::isBool);
-        register("isContainer", JelFunctions::isContainer);
-        register("isPrimitive", JelFunctions::isPrimitive);
-        register("isArray", JelFunctions::isArray);
-        register("isObject", JelFunctions::isObject);
-        register("isNull", JelFunctions::isNull);
-        register("string", JelFunctions::string);
-        register("number", JelFunctions::number);
-        register("bool", JelFunctions::bool);
-        register("array", JelFunctions::array);
-        register("object", JelFunctions::object);
+        register("dir", Privilege.NONE, Effect.CONTEXTUAL, JelFunctions::dir);
+        builtin("min", JelFunctions::min);
+        builtin("max", JelFunctions::max);
+        register("rand", Privilege.NONE, Effect.NONDETERMINISTIC, JelFunctions::rand);
+        builtin("size", JelFunctions::size);
+        builtin("hash", JelFunctions::hash);
+        builtin("startsWith", JelFunctions::startsWith);
+        builtin("endsWith", JelFunctions::endsWith);
+        builtin("contains", JelFunctions::contains);
+        builtin("has", JelFunctions::has);
+        register("remove", Privilege.NONE, Effect.MUTATES_SELF, JelFunctions::remove);
+        patternBuiltin("replace", JelFunctions::replace);
+        patternBuiltin("matches", JelFunctions::matches);
+        builtin("lowercase", JelFunctions::lowercase);
+        builtin("uppercase", JelFunctions::uppercase);
+        register("coalesce", Privilege.EXPERIMENTAL, Effect.NONE, JelFunctions::coalesce);
+        builtin("orElse", JelFunctions::orElse);
+        register("find", Privilege.EXPERIMENTAL, Effect.CALLS_ARGUMENTS, JelFunctions::find);
+        builtin("indexBy", JelFunctions::indexBy);
+        builtin("groupBy", JelFunctions::groupBy);
+        register("range", Privilege.EXPERIMENTAL, Effect.NONE, JelFunctions::range);
+        builtin("round", JelFunctions::round);
+        register("file", Privilege.IO, Effect.IO, JelFunctions::file);
+        builtin("keys", JelFunctions::keys);
+        builtin("values", JelFunctions::values);
+        register("time", Privilege.NONE, Effect.NONDETERMINISTIC, JelFunctions::time);
+        builtin("type", JelFunctions::type);
+        builtin("pretty", JelFunctions::pretty);
+        register("parse", Privilege.NONE, Effect.UNKNOWN, JelFunctions::parse);
+        builtin("isString", JelFunctions::isString);
+        builtin("isNumber", JelFunctions::isNumber);
+        builtin("isBool", JelFunctions::isBool);
+        builtin("isContainer", JelFunctions::isContainer);
+        builtin("isPrimitive", JelFunctions::isPrimitive);
+        builtin("isArray", JelFunctions::isArray);
+        builtin("isObject", JelFunctions::isObject);
+        builtin("isNull", JelFunctions::isNull);
+        builtin("string", JelFunctions::string);
+        builtin("number", JelFunctions::number);
+        builtin("bool", JelFunctions::bool);
+        builtin("array", JelFunctions::array);
+        builtin("object", JelFunctions::object);
     }
 
     public static @Nullable Callable lookup(final String name) {
@@ -91,11 +95,35 @@ public final class JelFunctions {
         if (f == null) {
             return null;
         } else if ((f.privilege & privilege) != f.privilege) {
-            return (self, ctx, values) -> {
-                throw new JelException("call is disallowed (unprivileged access): " + name);
-            };
+            return f.denied;
         }
-        return f.function;
+        return f;
+    }
+
+    // incremented whenever a function is registered, invalidating linked call sites
+    public static int version() {
+        return VERSION.get();
+    }
+
+    public static @MagicConstant(flagsFromClass = Effect.class) int getEffects(final String name) {
+        final Function f = FUNCTIONS.get(name);
+        return f != null ? f.effects : Effect.UNKNOWN;
+    }
+
+    // paths calling these functions must copy any shared receiver first
+    public static boolean mutatesSelf(final String name) {
+        final Function f = FUNCTIONS.get(name);
+        return f != null && f.mutatesSelf();
+    }
+
+    // call sites may compile a constant first argument ahead of time
+    public static boolean takesPattern(final String name) {
+        final Function f = FUNCTIONS.get(name);
+        return f != null && f.takesPattern();
+    }
+
+    public static boolean isPure(final Callable callable) {
+        return callable instanceof Function && ((Function) callable).isPure();
     }
 
     public static void register(final String name, final Callable function) {
@@ -106,16 +134,87 @@ public final class JelFunctions {
             final String name,
             final @MagicConstant(flagsFromClass = Privilege.class) int privilege,
             final Callable function) {
-        FUNCTIONS.put(name, new Function(function, privilege));
+        register(name, privilege, Effect.UNKNOWN, function);
+    }
+
+    public static void register(
+            final String name,
+            final @MagicConstant(flagsFromClass = Privilege.class) int privilege,
+            final @MagicConstant(flagsFromClass = Effect.class) int effects,
+            final Callable function) {
+        put(new Function(name, function, privilege, effects, false));
     }
 
-    private static class Function {
-        final Callable function;
-        final int privilege;
+    private static void put(final Function function) {
+        FUNCTIONS.put(function.name, function);
+        VERSION.incrementAndGet();
+    }
+
+    private static void builtin(final String name, final Callable function) {
+        register(name, Privilege.NONE, Effect.NONE, function);
+    }
+
+    // the first argument of these functions is a regular expression
+    private static void patternBuiltin(final String name, final Callable function) {
+        put(new Function(name, function, Privilege.NONE, Effect.NONE, true));
+    }
 
-        private Function(final Callable function, final int privilege) {
+    public static final class Function implements Callable {
+        private final String name;
+        private final Callable function;
+        private final int privilege;
+        private final int effects;
+        private final boolean takesPattern;
+        private final Callable denied;
+
+        private Function(
+                final String name,
+                final Callable function,
+                final int privilege,
+                final int effects,
+                final boolean takesPattern) {
+            this.name = name;
             this.function = function;
             this.privilege = privilege;
+            this.effects = effects;
+            this.takesPattern = takesPattern;
+            this.denied = (self, ctx, values) -> {
+                throw new JelException("call is disallowed (unprivileged access): " + name);
+            };
+        }
+
+        @Override
+        public Expression call(
+                final JsonValue self, final JelContext ctx, final JsonValue... args) throws JelException {
+            return this.function.call(self, ctx, args);
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public int getPrivilege() {
+            return this.privilege;
+        }
+
+        public int getEffects() {
+            return this.effects;
+        }
+
+        public boolean isPure() {
+            return this.effects == Effect.NONE;
+        }
+
+        public boolean isDeterministic() {
+            return (this.effects & (Effect.NONDETERMINISTIC | Effect.IO)) == 0;
+        }
+
+        public boolean mutatesSelf() {
+            return (this.effects & Effect.MUTATES_SELF) != 0;
+        }
+
+        public boolean takesPattern() {
+            return this.takesPattern;
         }
     }
 
@@ -357,15 +456,18 @@ public final class JelFunctions {
         if (self.isContainer()) {
             throw new IllegalJelArgsException("unsupported type: container");
         }
-        return of(self.intoString()
-            .replaceAll(args[0].intoString(), args[1].intoString()));
+        return of(PatternCache.global().compile(args[0].intoString())
+            .matcher(self.intoString())
+            .replaceAll(args[1].intoString()));
     }
 
     // overridden by class expressions
     public static Expression matches(
             final JsonValue self, final JelContext ctx, final JsonValue... args) throws JelException {
         requireArgs(1, 1, args);
-        return of(self.intoString().matches(args[0].intoString()));
+        return of(PatternCache.global().compile(args[0].intoString())
+            .matcher(self.intoString())
+            .matches());
     }
 
     public static Expression uppercase(
@@ -414,6 +516,10 @@ public final class JelFunctions {
             throw new JelException("find: argument must be an object or callable, called on an array");
         }
         final JsonObject matcher = args[0].asObject();
+        if (self.isArray()) {
+            final JsonValue found = ctx.getIndexCache().find(self.asArray(), matcher, ctx.getWrites());
+            return found != null ? of(found) : ofNull();
+        }
         for (final JsonReference r : self.intoArray().references()) {
             final JsonValue v = r.getOnly();
             if (v.isObject() && matches(v.asObject(), matcher)) {
@@ -423,7 +529,7 @@ public final class JelFunctions {
         return ofNull();
     }
 
-    private static boolean matches(final JsonObject lhs, final JsonObject rhs) {
+    static boolean matches(final JsonObject lhs, final JsonObject rhs) {
         for (final JsonObject.Member m : rhs) {
             final JsonValue actual = lhs.get(m.getKey());
             if (actual == null || !actual.matches(m.getOnly())) {
@@ -433,7 +539,50 @@ public final class JelFunctions {
         return true;
     }
 
-    // experimental because we may add a true range (that does not expand into an array)
+    public static Expression indexBy(
+            final JsonValue self, final JelContext ctx, final JsonValue... args) throws JelException {
+        requireArgs(1, 1, args);
+        final String key = args[0].intoString();
+        final JsonObject index = new JsonObject();
+        for (final JsonReference r : self.intoArray().references()) {
+            final JsonValue id = getField(r.getOnly(), key);
+            if (id != null && !index.has(id.intoString())) {
+                index.add(id.intoString(), JelReflection.copyShared(r.get()));
+            }
+        }
+        return of(index);
+    }
+
+    public static Expression groupBy(
+            final JsonValue self, final JelContext ctx, final JsonValue... args) throws JelException {
+        requireArgs(1, 1, args);
+        final String key = args[0].intoString();
+        final JsonObject groups = new JsonObject();
+        for (final JsonReference r : self.intoArray().references()) {
+            final JsonValue id = getField(r.getOnly(), key);
+            if (id == null) {
+                continue;
+            }
+            final JsonValue group = groups.get(id.intoString());
+            final JsonValue element = JelReflection.copyShared(r.get());
+            if (group != null) {
+                group.asArray().add(element);
+            } else {
+                groups.add(id.intoString(), new JsonArray().add(element));
+            }
+        }
+        return of(groups);
+    }
+
+    private static @Nullable JsonValue getField(final JsonValue value, final String key) {
+        if (!value.isObject()) {
+            return null;
+        }
+        final JsonValue field = value.asObject().get(key);
+        return field != null && !field.isNull() ? field : null;
+    }
+
+    // elements are computed on demand until the range is written into
     public static Expression range(
             final JsonValue self, final JelContext ctx, final JsonValue... args) throws JelException {
         requireArgs(1, 2, args);
@@ -446,11 +595,7 @@ public final class JelFunctions {
             min = args[0].intoInt();
             max = args[1].intoInt();
         }
-        final JsonArray array = new JsonArray(new ArrayList<>(max - min));
-        for (int i = min; i < max; i++) {
-            array.add(i);
-        }
-        return of(array);
+        return of(new JelRange(min, max));
     }
 
     public static Expression round(
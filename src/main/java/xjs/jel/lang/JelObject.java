@@ -22,6 +22,7 @@ public class JelObject extends JsonObject implements JelContainer, CallableAcces
     private final List<String> declaredKeys;
     private final List<JsonReference> declared;
     private final transient HashIndexTable declaredTable;
+    private transient boolean shared;
 
     public JelObject() {
         this(new ArrayList<>(), new ArrayList<>(),
@@ -100,6 +101,23 @@ public class JelObject extends JsonObject implements JelContainer, CallableAcces
         return this;
     }
 
+    @Override
+    public @Nullable JsonValue get(final String key) {
+        final JsonReference ref = this.getReference(key);
+        if (ref == null) {
+            return null;
+        }
+        JelReflection.unshare(ref);
+        return ref.get();
+    }
+
+    @Override
+    public JsonValue get(final int idx) {
+        final JsonReference ref = this.getReference(idx);
+        JelReflection.unshare(ref);
+        return ref.get();
+    }
+
     @Override
     public JsonReference getDeclaredReference(final int idx) {
         return this.declared.get(idx);
@@ -214,8 +232,27 @@ public class JelObject extends JsonObject implements JelContainer, CallableAcces
     }
 
     public JelObject copy(final boolean preserveCallables, final int options) {
+        return this.copy(copyReferences(this.declared, options), preserveCallables, options);
+    }
+
+    @Override
+    public boolean isShared() {
+        return this.shared;
+    }
+
+    @Override
+    public void markShared() {
+        this.shared = true;
+    }
+
+    @Override
+    public JelObject copyShared() {
+        return this.copy(JelContainer.shareReferences(this.declared), false, JsonCopy.FORMATTING);
+    }
+
+    private JelObject copy(
+            final List<JsonReference> declaredCopy, final boolean preserveCallables, final int options) {
         final List<String> declaredKeysCopy = new ArrayList<>(this.declaredKeys);
-        final List<JsonReference> declaredCopy = copyReferences(this.declared, options);
         final List<String> visibleKeys = new ArrayList<>();
         final List<JsonReference> visible = new ArrayList<>();
 
@@ -0,0 +1,121 @@
+package xjs.jel.lang;
+
+import org.jetbrains.annotations.Nullable;
+import xjs.core.Json;
+import xjs.core.JsonArray;
+import xjs.core.JsonReference;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * An array of consecutive integers which computes each element on demand.
+ *
+ * <p>Each element is stored the first time its reference is accessed, so
+ * that anything written through the reference is kept. Once the range is
+ * written into as a list, every element is stored and it behaves like any
+ * other array. Until any element is accessed, copying a range is free.
+ */
+public class JelRange extends JsonArray {
+    private final int min;
+    private final int max;
+
+    public JelRange(final int min, final int max) {
+        super(new Elements(min, Math.max(0, max - min)));
+        this.min = min;
+        this.max = max;
+    }
+
+    public int getMin() {
+        return this.min;
+    }
+
+    public int getMax() {
+        return this.max;
+    }
+
+    // no element has been accessed, so every element still has its original value
+    public boolean isVirtual() {
+        final Elements elements = (Elements) this.references;
+        return elements.stored == null && elements.accessed == null;
+    }
+
+    // writes must go through references which are kept by the array
+    public JelRange materialize() {
+        ((Elements) this.references).store();
+        return this;
+    }
+
+    @Override
+    public JsonArray copy(final int options) {
+        if (this.isVirtual()) {
+            return withMetadata(new JelRange(this.min, this.max), this, options);
+        }
+        return super.copy(options);
+    }
+
+    private static class Elements extends AbstractList<JsonReference> implements RandomAccess {
+        final int min;
+        final int size;
+        @Nullable Map<Integer, JsonReference> accessed;
+        @Nullable List<JsonReference> stored;
+
+        Elements(final int min, final int size) {
+            this.min = min;
+            this.size = size;
+        }
+
+        @Override
+        public JsonReference get(final int index) {
+            if (this.stored != null) {
+                return this.stored.get(index);
+            } else if (index < 0 || index >= this.size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+            } else if (this.accessed == null) {
+                // only a few elements of a large range are usually accessed
+                this.accessed = new HashMap<>();
+            }
+            return this.accessed.computeIfAbsent(index,
+                i -> new JsonReference(Json.value(this.min + i)));
+        }
+
+        @Override
+        public int size() {
+            return this.stored != null ? this.stored.size() : this.size;
+        }
+
+        @Override
+        public JsonReference set(final int index, final JsonReference reference) {
+            return this.store().set(index, reference);
+        }
+
+        @Override
+        public void add(final int index, final JsonReference reference) {
+            this.modCount++;
+            this.store().add(index, reference);
+        }
+
+        @Override
+        public JsonReference remove(final int index) {
+            this.modCount++;
+            return this.store().remove(index);
+        }
+
+        List<JsonReference> store() {
+            if (this.stored == null) {
+                final List<JsonReference> refs = new ArrayList<>(this.size);
+                for (int i = 0; i < this.size; i++) {
+                    final JsonReference ref = this.accessed != null ? this.accessed.get(i) : null;
+                    refs.add(ref != null ? ref : new JsonReference(Json.value(this.min + i)));
+                }
+                this.stored = refs;
+                this.accessed = null;
+            }
+            return this.stored;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package xjs.jel.lang;
 
 import org.jetbrains.annotations.Nullable;
 import xjs.core.JsonContainer;
+import xjs.core.JsonCopy;
 import xjs.core.JsonObject;
 import xjs.core.JsonReference;
 import xjs.core.JsonValue;
@@ -127,4 +128,32 @@ public final class JelReflection {
     public static List<String> declaredKeys(final JelObject object) {
         return object.declaredKeys();
     }
+
+    public static JsonValue copyShared(final JsonValue value) {
+        if (value instanceof JelContainer) {
+            return ((JelContainer) value).copyShared();
+        }
+        return value.copy(JsonCopy.RECURSIVE | JsonCopy.FORMATTING);
+    }
+
+    public static boolean isShared(final JsonValue value) {
+        return value instanceof JelContainer && ((JelContainer) value).isShared();
+    }
+
+    public static JsonValue unshared(final JsonValue value) {
+        return isShared(value) ? copyShared(value) : value;
+    }
+
+    // replaces a shared value with its own copy before it gets written into
+    public static JsonValue unshare(final JsonReference ref) {
+        final JsonValue value = ref.getOnly();
+        if (value instanceof JelRange) {
+            return ((JelRange) value).materialize();
+        } else if (isShared(value)) {
+            final JsonValue copy = copyShared(value);
+            ref.setOnly(copy);
+            return copy;
+        }
+        return value;
+    }
 }
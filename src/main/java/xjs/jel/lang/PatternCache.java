@@ -0,0 +1,90 @@
+package xjs.jel.lang;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A bounded, thread-safe cache of compiled regular expressions used by
+ * the string functions. Least recently used patterns are evicted first.
+ *
+ * <p>Patterns which are written literally into a call are compiled when
+ * the call is parsed, so that only dynamic patterns are ever compiled
+ * during evaluation.
+ */
+public final class PatternCache {
+    public static final int DEFAULT_SIZE = 256;
+    private static final PatternCache GLOBAL = new PatternCache(DEFAULT_SIZE);
+
+    private final Map<String, Pattern> patterns;
+    private long hits;
+    private long misses;
+
+    public PatternCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.patterns = new LinkedHashMap<String, Pattern>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Pattern> eldest) {
+                return this.size() > maxSize;
+            }
+        };
+    }
+
+    public static PatternCache global() {
+        return GLOBAL;
+    }
+
+    public Pattern compile(final String regex) {
+        synchronized (this) {
+            final Pattern pattern = this.patterns.get(regex);
+            if (pattern != null) {
+                this.hits++;
+                return pattern;
+            }
+            this.misses++;
+        }
+        final Pattern pattern = Pattern.compile(regex);
+        synchronized (this) {
+            this.patterns.put(regex, pattern);
+        }
+        return pattern;
+    }
+
+    // syntax errors are left to be reported when the pattern is used
+    public void precompile(final String regex) {
+        final Pattern pattern;
+        try {
+            pattern = Pattern.compile(regex);
+        } catch (final IllegalArgumentException ignored) {
+            return;
+        }
+        synchronized (this) {
+            this.patterns.putIfAbsent(regex, pattern);
+        }
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    public synchronized double getHitRate() {
+        final long total = this.hits + this.misses;
+        return total == 0 ? 0 : (double) this.hits / total;
+    }
+
+    public synchronized int size() {
+        return this.patterns.size();
+    }
+
+    public synchronized void clear() {
+        this.patterns.clear();
+        this.hits = 0;
+        this.misses = 0;
+    }
+}
@@ -11,6 +11,7 @@ import xjs.jel.JelFlags;
 import xjs.jel.JelMember;
 import xjs.jel.exception.JelException;
 import xjs.jel.expression.Expression;
+import xjs.jel.lang.JelReflection;
 import xjs.jel.path.JsonPath;
 import xjs.jel.sequence.AliasType;
 import xjs.jel.sequence.JelType;
@@ -53,13 +54,14 @@ public class AddModifier
         if (this.path == null) {
             throw new IllegalStateException("Alias not captured");
         }
-        final JsonReference ref = this.path.getReference(ctx);
-        if (!ref.getOnly().isArray()) {
+        final JsonReference ref = this.path.getReferenceForUpdate(ctx);
+        if (!JelReflection.unshare(ref).isArray()) {
             ref.setOnly(ref.getOnly().intoArray());
         }
         final JsonArray array = ref.getOnly().asArray();
         final JsonValue in = exp.apply(ctx);
-        for (final JsonValue v : in.intoArray()) {
+        for (JsonValue v : in.intoArray()) {
+            v = JelReflection.unshared(v);
             v.addFlag(JelFlags.ADD);
             array.add(v);
         }
@@ -3,6 +3,7 @@ package xjs.jel.modifier;
 import xjs.jel.expression.ArrayGeneratorExpression;
 import xjs.jel.expression.Expression;
 import xjs.jel.expression.TupleExpression;
+import xjs.jel.scope.LocalSlots;
 import xjs.jel.sequence.JelType;
 import xjs.jel.sequence.Sequence;
 
@@ -12,6 +13,7 @@ import java.util.List;
 public class ArrayGeneratorModifier
         extends Sequence.Parent implements Modifier {
     private final List<Modifier> captures = new ArrayList<>();
+    private final LocalSlots slots = ArrayGeneratorExpression.newSlots();
 
     public ArrayGeneratorModifier(final TupleExpression tuple) {
         super(JelType.ARRAY_GENERATOR, buildList(tuple));
@@ -20,7 +22,7 @@ public class ArrayGeneratorModifier
     @Override
     public Expression modify(final Expression expression) {
         return new ArrayGeneratorExpression(
-            (TupleExpression) this.subs.get(0), captures, expression);
+            (TupleExpression) this.subs.get(0), this.captures, expression, this.slots);
     }
 
     @Override
@@ -79,8 +79,10 @@ public class ImportModifier
             if (isVar) {
                 return ctx.getImport(path);
             }
-            return ctx.getImport(path)
+            final JsonValue copy = ctx.getImport(path)
                 .copy(JsonCopy.RECURSIVE | JsonCopy.FORMATTING);
+            ctx.getIndexCache().freezeOutput(copy);
+            return copy;
         } catch (final JelException e) {
             throw e.withSpan(this);
         }
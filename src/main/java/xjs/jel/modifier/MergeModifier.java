@@ -10,6 +10,7 @@ import xjs.jel.JelFlags;
 import xjs.jel.JelMember;
 import xjs.jel.exception.JelException;
 import xjs.jel.expression.Expression;
+import xjs.jel.lang.JelReflection;
 import xjs.jel.path.JsonPath;
 import xjs.jel.sequence.AliasType;
 import xjs.jel.sequence.JelType;
@@ -70,7 +71,7 @@ public class MergeModifier
 
     private JsonValue getSource(final JelContext ctx) throws JelException {
         if (this.path != null) {
-            return this.path.getReference(ctx).getOnly();
+            return JelReflection.unshare(this.path.getReferenceForUpdate(ctx));
         }
         return ctx.getParent();
     }
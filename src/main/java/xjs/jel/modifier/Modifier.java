@@ -5,6 +5,7 @@ import xjs.jel.Alias;
 import xjs.jel.JelContext;
 import xjs.jel.JelMember;
 import xjs.jel.exception.JelException;
+import xjs.jel.expression.Callable;
 import xjs.jel.expression.Expression;
 import xjs.jel.expression.LiteralExpression;
 import xjs.jel.sequence.AliasType;
@@ -74,6 +75,11 @@ public interface Modifier {
         return exp;
     }
 
+    // closures are given a new capture each time they are composed
+    static boolean capturesScope(final Expression exp) {
+        return exp instanceof Callable && ((Callable) exp).capturesScope();
+    }
+
     static List<Modifier> flatten(final List<Modifier> in) {
         return flatten(new ArrayList<>(), in);
     }
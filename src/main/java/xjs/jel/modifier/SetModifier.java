@@ -47,7 +47,7 @@ public class SetModifier
         if (this.path == null) {
             throw new IllegalStateException("Alias not captured");
         }
-        final List<JsonReference> refs = this.path.getAll(ctx);
+        final List<JsonReference> refs = this.path.getAllForUpdate(ctx);
         if (refs.isEmpty()) {
             throw new JelException(
                 "cannot set value--undefined variable (not yet supported)")
@@ -5,6 +5,7 @@ import xjs.jel.JelMember;
 import xjs.jel.exception.JelException;
 import xjs.jel.expression.Expression;
 import xjs.jel.expression.TemplateExpression;
+import xjs.jel.scope.LocalSlots;
 import xjs.jel.sequence.AliasType;
 import xjs.jel.sequence.JelType;
 import xjs.jel.sequence.Sequence;
@@ -23,12 +24,14 @@ public class TemplateModifier
         extends Sequence.Primitive implements Modifier {
     private final List<Modifier> captures;
     private final List<String> params;
+    private final LocalSlots slots;
 
     public TemplateModifier(
             final ContainerToken source, final List<ParsedToken> params) {
         super(JelType.IDENTIFIERS, source, source, new ArrayList<>(source.viewTokens()));
         this.captures = new ArrayList<>();
         this.params = buildParams(params);
+        this.slots = new LocalSlots(this.params);
     }
 
     private static List<String> buildParams(
@@ -53,7 +56,7 @@ public class TemplateModifier
 
     @Override
     public TemplateExpression modify(final Expression expression) {
-        return new TemplateExpression(expression, this.captures, this.params);
+        return new TemplateExpression(expression, this.captures, this.params, this.slots);
     }
 
     @Override
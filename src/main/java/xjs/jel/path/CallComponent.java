@@ -5,13 +5,20 @@ import xjs.core.JsonArray;
 import xjs.core.JsonReference;
 import xjs.core.JsonValue;
 import xjs.jel.JelContext;
+import xjs.jel.lang.ArgumentBuffers;
+import xjs.jel.lang.CallCache;
 import xjs.jel.lang.JelFunctions;
+import xjs.jel.lang.JelReflection;
+import xjs.jel.lang.PatternCache;
 import xjs.jel.exception.JelException;
 import xjs.jel.expression.Callable;
 import xjs.jel.expression.Expression;
+import xjs.jel.expression.LiteralExpression;
+import xjs.jel.expression.TemplateExpression;
 import xjs.jel.expression.TupleExpression;
 import xjs.jel.scope.CallableAccessor;
 import xjs.jel.scope.ReferenceAccessor;
+import xjs.jel.scope.Scope;
 import xjs.jel.sequence.JelType;
 import xjs.jel.sequence.Sequence;
 import xjs.serialization.Span;
@@ -21,12 +28,13 @@ import xjs.serialization.token.Token;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class CallComponent extends PathComponent {
     public final String key;
     public final @Nullable List<JsonArray> parsed;
     public final List<TupleExpression> raw;
+    private final @Nullable JsonValue[][] constant;
+    private final CallSite site;
 
     public CallComponent(
             final ParsedToken key, final List<TupleExpression> argumentChain) {
@@ -39,8 +47,32 @@ public class CallComponent extends PathComponent {
             final List<TupleExpression> argumentChain) {
         super(JelType.CALL, buildList(key, argumentChain));
         this.key = key.parsed();
+        this.site = new CallSite(this.key);
         this.raw = argumentChain;
         this.parsed = parsed;
+        this.constant = parsed != null ? toArrays(parsed) : null;
+        if (JelFunctions.takesPattern(this.key)) {
+            precompilePattern(argumentChain);
+        }
+    }
+
+    private static void precompilePattern(final List<TupleExpression> argumentChain) {
+        if (argumentChain.isEmpty()) {
+            return;
+        }
+        final List<Expression> args = argumentChain.get(0).expressions;
+        if (!args.isEmpty() && args.get(0) instanceof LiteralExpression.OfString) {
+            final LiteralExpression.OfString regex = (LiteralExpression.OfString) args.get(0);
+            PatternCache.global().precompile(regex.applyAsString(null));
+        }
+    }
+
+    private static JsonValue[][] toArrays(final List<JsonArray> parsed) {
+        final JsonValue[][] arrays = new JsonValue[parsed.size()][];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = toArray(parsed.get(i));
+        }
+        return arrays;
     }
 
     private static List<Span<?>> buildList(
@@ -60,7 +92,39 @@ public class CallComponent extends PathComponent {
         if (callable == null) {
             return Collections.emptyList();
         }
-        final List<JsonValue[]> argsList = this.getArgs(ctx);
+        if (this.constant != null) {
+            return this.call(ctx, callable, parent, this.constant);
+        }
+        // buffers belong to the context, since a sequence may be evaluated by several at once
+        final ArgumentBuffers buffers = ctx.getArgumentBuffers();
+        final JsonValue[][] args = new JsonValue[this.raw.size()][];
+        try {
+            return this.call(ctx, callable, parent, this.getArgs(ctx, buffers, args));
+        } finally {
+            for (final JsonValue[] buffer : args) {
+                if (buffer != null) {
+                    buffers.release(buffer);
+                }
+            }
+        }
+    }
+
+    private List<JsonReference> call(
+            final JelContext ctx,
+            final Callable callable,
+            final JsonValue parent,
+            final JsonValue[][] argsList) throws JelException {
+        final CallCache cache = ctx.getCallCache();
+        if (cache != null) {
+            if (JelFunctions.isPure(callable) && argsList.length == 1) {
+                // hashing a container receiver costs more than the call itself
+                if (!parent.isContainer()) {
+                    return this.callMemoized(ctx, cache, callable, parent, argsList[0]);
+                }
+            } else if (!(callable instanceof TemplateExpression)) {
+                cache.markEffect();
+            }
+        }
         Expression exp = callable;
         for (final JsonValue[] args : argsList) {
             if (!(exp instanceof Callable)) {
@@ -75,6 +139,27 @@ public class CallComponent extends PathComponent {
         return Collections.singletonList(new JsonReference(exp.apply(ctx)));
     }
 
+    private List<JsonReference> callMemoized(
+            final JelContext ctx,
+            final CallCache cache,
+            final Callable callable,
+            final JsonValue parent,
+            final JsonValue[] args) throws JelException {
+        final CallCache.Key key = new CallCache.Key(callable, null, parent, args);
+        final JsonValue cached = cache.get(key);
+        if (cached != null) {
+            return Collections.singletonList(new JsonReference(JelReflection.copyShared(cached)));
+        }
+        final JsonValue value;
+        try {
+            value = callable.call(parent, ctx, args).apply(ctx);
+        } catch (final JelException e) {
+            throw e.withSpan(ctx, this);
+        }
+        cache.put(key, JelReflection.copyShared(value));
+        return Collections.singletonList(new JsonReference(value));
+    }
+
     private @Nullable Callable findCallable(
             final JelContext ctx,
             final ReferenceAccessor accessor,
@@ -86,31 +171,31 @@ public class CallComponent extends PathComponent {
                 return c;
             }
         }
-        if (accessor != null) {
+        final Scope scope = ctx.getScope();
+        if (accessor != null && accessor != scope) {
             c = accessor.getCallable(this.key);
             if (c != null) {
                 return c;
             }
         }
-        if (accessor != ctx.getScope()) {
-            c = ctx.getScope().getCallable(this.key);
-            if (c != null) {
-                return c;
-            }
+        c = this.site.fromScope(scope);
+        if (c != null) {
+            return c;
         }
-        return JelFunctions.lookup(ctx.getPrivilege(), this.key);
+        return this.site.builtin(ctx);
     }
 
-    private List<JsonValue[]> getArgs(
-            final JelContext ctx) throws JelException {
-        if (this.parsed != null) {
-            return this.parsed.stream()
-                .map(CallComponent::toArray)
-                .collect(Collectors.toList());
-        }
-        final List<JsonValue[]> args = new ArrayList<>();
-        for (final TupleExpression ids : this.raw) {
-            args.add(toArray(ids.apply(ctx)));
+    private JsonValue[][] getArgs(
+            final JelContext ctx,
+            final ArgumentBuffers buffers,
+            final JsonValue[][] args) throws JelException {
+        for (int i = 0; i < args.length; i++) {
+            final List<Expression> expressions = this.raw.get(i).expressions;
+            final JsonValue[] buffer = buffers.take(expressions.size());
+            args[i] = buffer;
+            for (int j = 0; j < buffer.length; j++) {
+                buffer[j] = expressions.get(j).apply(ctx);
+            }
         }
         return args;
     }
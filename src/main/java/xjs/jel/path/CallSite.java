@@ -0,0 +1,75 @@
+package xjs.jel.path;
+
+import org.jetbrains.annotations.Nullable;
+import xjs.core.JsonReference;
+import xjs.jel.JelContext;
+import xjs.jel.expression.Callable;
+import xjs.jel.lang.JelFunctions;
+import xjs.jel.scope.Scope;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Remembers how a single call site resolved its callable, so that repeated
+ * calls skip the lookups which can't have changed.
+ *
+ * <p>Callables defined in a scope are cached until the scope's {@link
+ * Scope#getStamp stamp} changes. The scope and its callable are only held
+ * weakly, so a call site never keeps a scope alive after it is dropped.
+ * When no variable is declared under the key, that result is kept until a
+ * variable which may share its name is {@link Scope#getDeclarationStamp
+ * declared}.
+ * Builtin functions are linked once per privilege level and registry
+ * version.
+ */
+final class CallSite {
+    private final String key;
+    private @Nullable WeakReference<Scope> scope;
+    private int stamp;
+    private @Nullable WeakReference<Callable> defined;
+    private boolean undeclared;
+    private int declarations;
+    private boolean linked;
+    private int privilege;
+    private int version;
+    private @Nullable Callable builtin;
+
+    CallSite(final String key) {
+        this.key = key;
+    }
+
+    @Nullable Callable fromScope(final Scope scope) {
+        final int stamp = scope.getStamp();
+        Callable defined = this.defined != null ? this.defined.get() : null;
+        if (this.scope == null || this.scope.get() != scope || stamp != this.stamp) {
+            defined = scope.getDefinedCallable(this.key);
+            this.scope = new WeakReference<>(scope);
+            this.stamp = stamp;
+            this.defined = defined != null ? new WeakReference<>(defined) : null;
+            this.undeclared = false;
+        }
+        if (defined != null) {
+            return defined;
+        }
+        final int declarations = scope.getDeclarationStamp(this.key);
+        if (this.undeclared && declarations == this.declarations) {
+            return null;
+        }
+        final JsonReference ref = scope.getDeclared(this.key);
+        this.undeclared = ref == null;
+        this.declarations = declarations;
+        return Scope.getCallable(ref);
+    }
+
+    @Nullable Callable builtin(final JelContext ctx) {
+        final int privilege = ctx.getPrivilege();
+        final int version = JelFunctions.version();
+        if (!this.linked || privilege != this.privilege || version != this.version) {
+            this.builtin = JelFunctions.lookup(privilege, this.key);
+            this.privilege = privilege;
+            this.version = version;
+            this.linked = true;
+        }
+        return this.builtin;
+    }
+}
@@ -1,8 +1,11 @@
 package xjs.jel.path;
 
+import org.jetbrains.annotations.Nullable;
+import xjs.core.JsonContainer;
 import xjs.core.JsonReference;
 import xjs.core.JsonValue;
 import xjs.jel.JelContext;
+import xjs.jel.lang.JelReflection;
 import xjs.jel.scope.ReferenceAccessor;
 import xjs.jel.sequence.JelType;
 import xjs.serialization.token.ContainerToken;
@@ -24,7 +27,27 @@ public class IndexComponent extends PathComponent {
             final JelContext ctx,
             final ReferenceAccessor accessor,
             final JsonValue parent) {
-        final int idx = wrapIndex(accessor.localSize(), this.index);
-        return buildList(accessor.get(idx));
+        return buildList(this.getFirst(ctx, accessor, parent));
+    }
+
+    @Override
+    protected @Nullable JsonReference getFirst(
+            final JelContext ctx,
+            final ReferenceAccessor accessor,
+            final JsonValue parent) {
+        return accessor.get(wrapIndex(accessor.localSize(), this.index));
+    }
+
+    @Override
+    protected @Nullable JsonReference getIn(final JelContext ctx, final JsonValue value) {
+        if (!value.isContainer()) {
+            return null;
+        }
+        final JsonContainer container = value.asContainer();
+        final int idx = wrapIndex(JelReflection.getSize(container), this.index);
+        if (idx < 0 || idx >= JelReflection.getSize(container)) {
+            return null;
+        }
+        return JelReflection.getReference(container, idx);
     }
 }
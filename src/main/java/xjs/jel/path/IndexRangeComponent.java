@@ -25,6 +25,11 @@ public class IndexRangeComponent extends PathComponent {
         this.e = e != null ? (int) e.number : -1;
     }
 
+    @Override
+    public boolean isMultiValued() {
+        return true;
+    }
+
     @Override
     public List<JsonReference> getAll(
             final JelContext ctx,
@@ -10,6 +10,8 @@ import xjs.jel.JelContext;
 import xjs.jel.exception.JelException;
 import xjs.jel.expression.Callable;
 import xjs.jel.lang.CallableFacade;
+import xjs.jel.lang.JelFunctions;
+import xjs.jel.lang.JelReflection;
 import xjs.jel.scope.ContainerAccessor;
 import xjs.jel.scope.ReferenceAccessor;
 import xjs.jel.sequence.JelType;
@@ -21,14 +23,65 @@ import java.util.Collections;
 import java.util.List;
 
 public class JsonPath extends Sequence<PathComponent> {
+    private final boolean mutating;
+    private final boolean scalar;
+    private final boolean cacheable;
+    private @Nullable JelContext cachedCtx;
+    private int cachedWrites;
+    private @Nullable JsonReference cachedHead;
+    private @Nullable JsonReference[] cachedRefs;
+    private @Nullable JsonValue[] cachedValues;
 
     protected JsonPath(final JelType type, final List<PathComponent> subs) {
         super(type, subs);
+        this.mutating = isMutating(subs);
+        this.scalar = isScalar(subs);
+        this.cacheable = isCacheable(subs);
     }
 
     protected JsonPath(
             final JelType type, final Span<?> s, final Span<?> e, final List<PathComponent> subs) {
         super(type, s, e, subs);
+        this.mutating = isMutating(subs);
+        this.scalar = isScalar(subs);
+        this.cacheable = isCacheable(subs);
+    }
+
+    private static boolean isScalar(final List<PathComponent> subs) {
+        for (final PathComponent component : subs) {
+            if (component.isMultiValued()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // keys into existing containers can only change when they are written
+    private static boolean isCacheable(final List<PathComponent> subs) {
+        if (subs.size() < 2) {
+            return false;
+        }
+        // calls and inline values produce a new head on every evaluation
+        final PathComponent head = subs.get(0);
+        if (!(head instanceof KeyComponent) && !(head instanceof IndexComponent)) {
+            return false;
+        }
+        for (int i = 1; i < subs.size(); i++) {
+            if (!(subs.get(i) instanceof KeyComponent)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isMutating(final List<PathComponent> subs) {
+        for (final PathComponent component : subs) {
+            if (component instanceof CallComponent
+                    && JelFunctions.mutatesSelf(((CallComponent) component).key)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public static JsonPath of(final List<PathComponent> components) {
@@ -51,6 +104,23 @@ public class JsonPath extends Sequence<PathComponent> {
         return this.getAll(ctx, ctx.getScope(), ctx.peekParent());
     }
 
+    public JsonReference getReferenceForUpdate(final JelContext ctx) throws JelException {
+        if (this.scalar) {
+            final JsonReference ref = this.getOne(ctx, ctx.getScope(), ctx.peekParent(), true);
+            return ref != null ? ref : new JsonReference(JsonLiteral.jsonNull());
+        }
+        final List<JsonReference> refs = this.getAllForUpdate(ctx);
+        if (refs.isEmpty()) {
+            return new JsonReference(JsonLiteral.jsonNull());
+        }
+        return refs.get(0);
+    }
+
+    // copies any shared container along the path before it gets written into
+    public List<JsonReference> getAllForUpdate(final JelContext ctx) throws JelException {
+        return this.getAll(ctx, ctx.getScope(), ctx.peekParent(), true);
+    }
+
     public JsonValue get(final JsonContainer container) {
         try {
             return this.get(JelContext.GLOBAL_CONTEXT, new ContainerAccessor(container), container);
@@ -79,24 +149,39 @@ public class JsonPath extends Sequence<PathComponent> {
             final JelContext ctx,
             final ReferenceAccessor accessor,
             final JsonValue parent) throws JelException {
+        if (this.scalar) {
+            final JsonReference ref = this.getOne(ctx, accessor, parent, this.mutating);
+            if (ref != null) {
+                return ref.get();
+            }
+            return this.unresolved(ctx);
+        }
         final List<JsonReference> refs = this.getAll(ctx, accessor, parent);
         if (refs.size() == 0) {
-            if (ctx.isStrictPathing()) {
-                throw new JelException("Path does not resolve to any variable")
-                    .withSpan(this)
-                    .withDetails("Application is configured to disallow lenient pathing");
-            }
-            return JsonLiteral.jsonNull();
+            return this.unresolved(ctx);
         } else if (refs.size() == 1) {
             return refs.get(0).get();
         }
         return new JsonArray(refs);
     }
 
+    private JsonValue unresolved(final JelContext ctx) throws JelException {
+        if (ctx.isStrictPathing()) {
+            throw new JelException("Path does not resolve to any variable")
+                .withSpan(this)
+                .withDetails("Application is configured to disallow lenient pathing");
+        }
+        return JsonLiteral.jsonNull();
+    }
+
     public JsonReference getReference(
             final JelContext ctx,
             final ReferenceAccessor accessor,
             final JsonValue parent) throws JelException {
+        if (this.scalar) {
+            final JsonReference ref = this.getOne(ctx, accessor, parent, this.mutating);
+            return ref != null ? ref : new JsonReference(JsonLiteral.jsonNull());
+        }
         final List<JsonReference> refs = this.getAll(ctx, accessor, parent);
         if (refs.isEmpty()) {
             return new JsonReference(JsonLiteral.jsonNull());
@@ -155,8 +240,21 @@ public class JsonPath extends Sequence<PathComponent> {
             final JelContext ctx,
             final ReferenceAccessor accessor,
             final JsonValue parent) throws JelException {
-        if (this.subs.isEmpty()) {
+        return this.getAll(ctx, accessor, parent, this.mutating);
+    }
+
+    private List<JsonReference> getAll(
+            final JelContext ctx,
+            final ReferenceAccessor accessor,
+            final JsonValue parent,
+            final boolean update) throws JelException {
+        if (this.scalar) {
+            final JsonReference ref = this.getOne(ctx, accessor, parent, update);
+            return ref != null ? Collections.singletonList(ref) : Collections.emptyList();
+        } else if (this.subs.isEmpty()) {
             return Collections.emptyList();
+        } else if (update) {
+            ctx.markWritten();
         }
         List<JsonReference> all = null;
         for (final PathComponent component : this.subs) {
@@ -169,18 +267,98 @@ public class JsonPath extends Sequence<PathComponent> {
             final List<JsonReference> refs = all;
             all = new ArrayList<>();
             for (final JsonReference ref : refs) {
+                final JsonValue value = update ? JelReflection.unshare(ref) : ref.get();
                 final ReferenceAccessor next =
-                    ref.getOnly().isContainer()
-                        ? new ContainerAccessor(ref.get().asContainer())
-                        : null;
+                    value.isContainer() ? new ContainerAccessor(value.asContainer()) : null;
                 if (next != null || component.acceptsNullAccessor()) {
-                    all.addAll(component.getAll(ctx, next, ref.get()));
+                    all.addAll(component.getAll(ctx, next, value));
                 }
             }
         }
         return all;
     }
 
+    // walks a path which can't fan out without allocating any lists or accessors
+    private @Nullable JsonReference getOne(
+            final JelContext ctx,
+            final ReferenceAccessor accessor,
+            final JsonValue parent,
+            final boolean update) throws JelException {
+        if (this.subs.isEmpty()) {
+            return null;
+        } else if (update) {
+            ctx.markWritten();
+        } else if (this.cacheable && accessor == ctx.getScope() && this.hasStableHead()) {
+            return this.getCached(ctx, accessor, parent);
+        }
+        JsonReference ref = this.subs.get(0).getFirst(ctx, accessor, parent);
+        for (int i = 1; i < this.subs.size() && ref != null; i++) {
+            final JsonValue value = update ? JelReflection.unshare(ref) : ref.get();
+            ref = this.subs.get(i).getIn(ctx, value);
+        }
+        return ref;
+    }
+
+    // parameters are bound to a new reference on every call
+    private boolean hasStableHead() {
+        final PathComponent head = this.subs.get(0);
+        return !(head instanceof KeyComponent) || !((KeyComponent) head).isSlotBound();
+    }
+
+    // reuses the last resolved reference while the head and every value under it are unchanged
+    private @Nullable JsonReference getCached(
+            final JelContext ctx,
+            final ReferenceAccessor accessor,
+            final JsonValue parent) throws JelException {
+        final JsonReference head = this.subs.get(0).getFirst(ctx, accessor, parent);
+        if (head == null) {
+            return null;
+        }
+        final JsonValue headValue = head.get();
+        if (this.isCached(ctx, head, headValue)) {
+            return this.cachedRefs[this.subs.size() - 1];
+        }
+        final int len = this.subs.size();
+        JsonReference[] refs = this.cachedRefs;
+        JsonValue[] values = this.cachedValues;
+        if (refs == null || values == null) {
+            refs = new JsonReference[len];
+            values = new JsonValue[len];
+        }
+        this.cachedHead = null;
+        values[0] = headValue;
+        for (int i = 1; i < len; i++) {
+            refs[i] = this.subs.get(i).getIn(ctx, values[i - 1]);
+            if (refs[i] == null) {
+                return null;
+            }
+            values[i] = refs[i].get();
+        }
+        this.cachedCtx = ctx;
+        this.cachedWrites = ctx.getWrites();
+        this.cachedHead = head;
+        this.cachedRefs = refs;
+        this.cachedValues = values;
+        return refs[len - 1];
+    }
+
+    private boolean isCached(
+            final JelContext ctx, final JsonReference head, final JsonValue headValue) {
+        if (head != this.cachedHead
+                || ctx != this.cachedCtx
+                || ctx.getWrites() != this.cachedWrites
+                || headValue != this.cachedValues[0]) {
+            return false;
+        }
+        // any intermediate container may have been replaced without a write being recorded
+        for (int i = 1; i < this.subs.size() - 1; i++) {
+            if (this.cachedRefs[i].getOnly() != this.cachedValues[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public boolean isPrimitive() {
         return false;
@@ -5,8 +5,10 @@ import xjs.core.JsonReference;
 import xjs.core.JsonValue;
 import xjs.jel.JelContext;
 import xjs.jel.expression.Callable;
-import xjs.jel.lang.JelFunctions;
+import xjs.jel.lang.JelReflection;
+import xjs.jel.scope.LocalSlots;
 import xjs.jel.scope.ReferenceAccessor;
+import xjs.jel.scope.Scope;
 import xjs.jel.sequence.JelType;
 import xjs.serialization.Span;
 import xjs.serialization.token.ParsedToken;
@@ -16,10 +18,31 @@ import java.util.List;
 
 public class KeyComponent extends PathComponent {
     public final String key;
+    private final CallSite site;
+    private @Nullable LocalSlots slots;
+    private int slot;
+    private boolean dynamic;
 
     public KeyComponent(final ParsedToken token) {
         super(JelType.KEY, buildList(token));
         this.key = token.parsed();
+        this.site = new CallSite(this.key);
+    }
+
+    public void bindSlot(final LocalSlots slots, final int slot) {
+        if (this.dynamic || (this.slots == slots && this.slot == slot)) {
+            return;
+        } else if (this.slots != null) {
+            this.slots = null;
+            this.dynamic = true;
+            return;
+        }
+        this.slots = slots;
+        this.slot = slot;
+    }
+
+    public boolean isSlotBound() {
+        return this.slots != null;
     }
 
     @Override
@@ -27,7 +50,27 @@ public class KeyComponent extends PathComponent {
             final JelContext ctx,
             final ReferenceAccessor accessor,
             final JsonValue parent) {
-        return buildList(accessor.get(this.key));
+        return buildList(this.getFirst(ctx, accessor, parent));
+    }
+
+    @Override
+    protected @Nullable JsonReference getFirst(
+            final JelContext ctx,
+            final ReferenceAccessor accessor,
+            final JsonValue parent) {
+        final LocalSlots slots = this.slots;
+        if (slots != null && accessor == ctx.getScope()) {
+            final JsonReference local = slots.get(this.slot);
+            if (local != null) {
+                return local;
+            }
+        }
+        return accessor.get(this.key);
+    }
+
+    @Override
+    protected @Nullable JsonReference getIn(final JelContext ctx, final JsonValue value) {
+        return value.isObject() ? JelReflection.getReference(value.asObject(), this.key) : null;
     }
 
     @Override
@@ -40,17 +83,17 @@ public class KeyComponent extends PathComponent {
             final JelContext ctx,
             final ReferenceAccessor accessor,
             final JsonValue parent) {
-        Callable c = accessor != null
-            ? accessor.getCallable(this.key) : null;
-        if (c != null) {
-            return c;
-        }
-        if (accessor != ctx.getScope()) {
-            c = ctx.getScope().getCallable(this.key);
+        final Scope scope = ctx.getScope();
+        if (accessor != null && accessor != scope) {
+            final Callable c = accessor.getCallable(this.key);
             if (c != null) {
                 return c;
             }
         }
-        return JelFunctions.lookup(ctx.getPrivilege(), this.key);
+        final Callable c = this.site.fromScope(scope);
+        if (c != null) {
+            return c;
+        }
+        return this.site.builtin(ctx);
     }
 }
@@ -6,6 +6,7 @@ import xjs.core.JsonValue;
 import xjs.jel.JelContext;
 import xjs.jel.exception.JelException;
 import xjs.jel.expression.Callable;
+import xjs.jel.scope.ContainerAccessor;
 import xjs.jel.scope.ReferenceAccessor;
 import xjs.jel.sequence.JelType;
 import xjs.jel.sequence.Sequence;
@@ -35,6 +36,31 @@ public abstract class PathComponent extends Sequence.Combined {
         return false;
     }
 
+    // whether this component may resolve to more than one reference
+    public boolean isMultiValued() {
+        return false;
+    }
+
+    // resolves a single-valued component at the head of a path
+    protected @Nullable JsonReference getFirst(
+            final JelContext ctx,
+            final ReferenceAccessor accessor,
+            final JsonValue parent) throws JelException {
+        final List<JsonReference> refs = this.getAll(ctx, accessor, parent);
+        return refs.isEmpty() ? null : refs.get(0);
+    }
+
+    // resolves a single-valued component inside the value of the previous component
+    protected @Nullable JsonReference getIn(
+            final JelContext ctx, final JsonValue value) throws JelException {
+        final ReferenceAccessor next =
+            value.isContainer() ? new ContainerAccessor(value.asContainer()) : null;
+        if (next == null && !this.acceptsNullAccessor()) {
+            return null;
+        }
+        return this.getFirst(ctx, next, value);
+    }
+
     public @Nullable Callable getCallable(
             final JelContext ctx,
             final ReferenceAccessor accessor,
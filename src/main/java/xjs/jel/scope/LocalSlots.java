@@ -0,0 +1,71 @@
+package xjs.jel.scope;
+
+import org.jetbrains.annotations.Nullable;
+import xjs.core.JsonReference;
+import xjs.jel.expression.Expression;
+import xjs.jel.modifier.Modifier;
+
+import java.util.List;
+
+/**
+ * A fixed set of local names, such as template parameters or generator
+ * variables, whose references can be read by index instead of by name.
+ *
+ * <p>Any {@link xjs.jel.path.KeyComponent} which is statically known to
+ * refer to one of these names gets bound to its slot during {@link
+ * #resolve resolution}. The owner then {@link #enter enters} an array of
+ * references on each invocation, restoring the previous array when it
+ * exits, so that recursive calls always see their own values.
+ */
+public final class LocalSlots {
+    private final List<String> names;
+    private @Nullable Expression source;
+    private boolean disabled;
+    private @Nullable JsonReference[] active;
+
+    public LocalSlots(final List<String> names) {
+        this.names = names;
+    }
+
+    public List<String> names() {
+        return this.names;
+    }
+
+    public int size() {
+        return this.names.size();
+    }
+
+    public void resolve(final Expression body, final List<Modifier> captures) {
+        if (this.source == body || this.disabled) {
+            return;
+        } else if (this.source != null) {
+            // bindings for the original body may still be live
+            this.disabled = true;
+            return;
+        }
+        this.source = body;
+        new SlotResolver(this).resolve(body, captures);
+    }
+
+    public void disable() {
+        this.disabled = true;
+    }
+
+    public @Nullable JsonReference[] enter(final JsonReference[] refs) {
+        final JsonReference[] previous = this.active;
+        this.active = refs;
+        return previous;
+    }
+
+    public void exit(final @Nullable JsonReference[] previous) {
+        this.active = previous;
+    }
+
+    public @Nullable JsonReference get(final int slot) {
+        final JsonReference[] active = this.active;
+        if (active == null || this.disabled) {
+            return null;
+        }
+        return active[slot];
+    }
+}
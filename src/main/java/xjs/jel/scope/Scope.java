@@ -1,120 +1,270 @@
 package xjs.jel.scope;
 
 import org.jetbrains.annotations.Nullable;
-import xjs.core.JsonArray;
 import xjs.core.JsonReference;
 import xjs.jel.JelMember;
 import xjs.jel.exception.JelException;
-import xjs.jel.lang.JelObject;
 import xjs.jel.expression.Callable;
+import xjs.jel.lang.CallableFacade;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EmptyStackException;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Stack;
+import java.util.Map;
 
+/**
+ * A chain of linked frames holding every variable which is visible to an
+ * expression.
+ *
+ * <p>Frames are append-only and may be shared between any number of
+ * scopes. Each scope <em>owns</em> the frames it pushes and only views the
+ * frames it was captured from, up to the number of entries which existed
+ * at the time. Capturing is therefore a pointer copy, and a frame is only
+ * copied if a scope writes into a frame that it does not own.
+ *
+ * <p>Frames which were never viewed by a capture are truncated in bulk
+ * when dropped and reused by the next call to {@link #pushFrame}.
+ */
 public final class Scope implements ReferenceAccessor {
+    private static final int DECLARATION_BUCKETS = 32;
+
     private final @Nullable String filePath;
-    private final Stack<JsonArray> indexStack;
-    private final JelObject map;
-    private final Stack<Frame> frames;
-    private JsonArray byIndex;
     private Frame frame;
+    private @Nullable Frame free;
+    private boolean owner;
+    private int declaredLimit;
+    private int callableLimit;
+    private int indexLimit;
+    private int stamp;
+    private int @Nullable [] declarations;
 
     public Scope() {
         this(null);
     }
 
     public Scope(final String filePath) {
-        this(
-            filePath,
-            new Stack<>(),
-            new JelObject(),
-            new Stack<>(),
-            new Frame(),
-            new JsonArray());
+        this(filePath, new Frame(), true, 0, 0, 0);
     }
 
     private Scope(
             final @Nullable String filePath,
-            final Stack<JsonArray> indexStack,
-            final JelObject map,
-            final Stack<Frame> frames,
             final Frame frame,
-            final JsonArray byIndex) {
+            final boolean owner,
+            final int declaredLimit,
+            final int callableLimit,
+            final int indexLimit) {
         this.filePath = filePath;
-        this.indexStack = indexStack;
-        this.map = map;
-        this.frames = frames;
-        this.byIndex = byIndex;
         this.frame = frame;
+        this.owner = owner;
+        this.declaredLimit = declaredLimit;
+        this.callableLimit = callableLimit;
+        this.indexLimit = indexLimit;
     }
 
     public @Nullable String getFilePath() {
         return this.filePath;
     }
 
+    // changes whenever a callable is added to or dropped from this scope
+    public int getStamp() {
+        return this.stamp;
+    }
+
+    // changes whenever a variable which may be named key is declared in this scope
+    public int getDeclarationStamp(final String key) {
+        final int[] declarations = this.declarations;
+        return declarations != null ? declarations[key.hashCode() & (DECLARATION_BUCKETS - 1)] : 0;
+    }
+
     public void pushFrame() {
-        this.indexStack.add(this.byIndex);
-        this.frame = new Frame();
-        this.frames.add(this.frame);
-        this.byIndex = new JsonArray();
+        Frame next = this.free;
+        if (next != null) {
+            this.free = next.nextFree;
+            next.nextFree = null;
+        } else {
+            next = new Frame();
+        }
+        next.link(
+            this.frame,
+            this.owner,
+            this.declaredLimit(),
+            this.callableLimit(),
+            this.indexLimit());
+        this.frame = next;
+        this.owner = true;
     }
 
     public void add(final String key, final JsonReference ref) {
-        this.map.addReference(key, ref);
-        this.frame.references.add(key);
-        this.byIndex.addReference(ref);
+        final Frame frame = this.writable();
+        frame.declared.add(key, ref);
+        frame.byIndex.add(ref);
+        int[] declarations = this.declarations;
+        if (declarations == null) {
+            declarations = new int[DECLARATION_BUCKETS];
+            this.declarations = declarations;
+        }
+        declarations[key.hashCode() & (DECLARATION_BUCKETS - 1)]++;
     }
 
     public void addCallable(final String key, final Callable callable) {
         if (callable.capturesScope() && !callable.hasCapture()) {
             callable.setCapture(this.capture());
         }
-        this.map.addCallable(key, callable);
-        this.frame.callables.add(key);
+        this.writable().callables.add(key, callable);
+        this.stamp++;
     }
 
     @Override
     public JsonReference get(final String key) {
-        return this.map.getDeclaredReference(key);
+        final JsonReference ref = this.getDeclared(key);
+        if (ref != null) {
+            return ref;
+        }
+        final Callable callable = this.findCallable(key);
+        if (callable != null) {
+            return new JsonReference(new CallableFacade(callable));
+        }
+        return null;
     }
 
     @Override
     public Callable getCallable(final String key) {
-        return this.map.getCallable(key);
+        final Callable callable = this.findCallable(key);
+        if (callable != null) {
+            return callable;
+        }
+        return this.getDeclaredCallable(key);
+    }
+
+    // only callables which were added as callables, stable until the stamp changes
+    public @Nullable Callable getDefinedCallable(final String key) {
+        return this.findCallable(key);
+    }
+
+    // callables stored in variables, which may be reassigned at any time
+    public @Nullable Callable getDeclaredCallable(final String key) {
+        return getCallable(this.getDeclared(key));
+    }
+
+    public static @Nullable Callable getCallable(final @Nullable JsonReference ref) {
+        if (ref != null && ref.getOnly() instanceof CallableFacade) {
+            return ((CallableFacade) ref.get()).getWrapped();
+        }
+        return null;
+    }
+
+    public @Nullable JsonReference getDeclared(final String key) {
+        Frame f = this.frame;
+        int limit = this.declaredLimit();
+        while (f != null) {
+            final int index = f.declared.indexOf(key, limit);
+            if (index != -1) {
+                return f.declared.values.get(index);
+            }
+            limit = f.parentDeclared;
+            f = f.parent;
+        }
+        return null;
+    }
+
+    private @Nullable Callable findCallable(final String key) {
+        Frame f = this.frame;
+        int limit = this.callableLimit();
+        while (f != null) {
+            final int index = f.callables.indexOf(key, limit);
+            if (index != -1) {
+                return f.callables.values.get(index);
+            }
+            limit = f.parentCallables;
+            f = f.parent;
+        }
+        return null;
     }
 
     @Override
     public List<String> callableKeys() {
-        return this.map.callableKeys();
+        final List<String> keys = new ArrayList<>();
+        collectCallableKeys(keys, this.frame, this.callableLimit());
+        return keys;
+    }
+
+    private static void collectCallableKeys(
+            final List<String> keys, final Frame f, final int limit) {
+        if (f.parent != null) {
+            collectCallableKeys(keys, f.parent, f.parentCallables);
+        }
+        keys.addAll(f.callables.keys.subList(0, limit));
     }
 
     public void add(final JsonReference ref) {
-        this.byIndex.addReference(ref);
+        this.writable().byIndex.add(ref);
     }
 
     @Override
     public JsonReference get(final int index) {
-        if (index < 0 || index >= this.byIndex.size()) {
+        if (index < 0 || index >= this.indexLimit()) {
             return null;
         }
-        return this.byIndex.getReference(index);
+        return this.frame.byIndex.get(index);
     }
 
     public List<JelMember> jelMembers() {
-        return this.map.jelMembers();
+        final List<JelMember> members = new ArrayList<>();
+        collectCallables(members, this.frame, this.callableLimit());
+        collectDeclared(members, this.frame, this.declaredLimit());
+        return members;
+    }
+
+    private static void collectCallables(
+            final List<JelMember> members, final Frame f, final int limit) {
+        if (f.parent != null) {
+            collectCallables(members, f.parent, f.parentCallables);
+        }
+        for (int i = 0; i < limit; i++) {
+            members.add(JelMember.of(f.callables.keys.get(i), f.callables.values.get(i)));
+        }
+    }
+
+    private static void collectDeclared(
+            final List<JelMember> members, final Frame f, final int limit) {
+        if (f.parent != null) {
+            collectDeclared(members, f.parent, f.parentDeclared);
+        }
+        for (int i = 0; i < limit; i++) {
+            members.add(JelMember.of(f.declared.keys.get(i), f.declared.values.get(i).getOnly()));
+        }
     }
 
     public void dropFrame() {
-        this.byIndex = this.indexStack.pop();
-        final Frame dropped = this.frames.pop();
-        dropped.references.forEach(this.map::remove);
-        dropped.callables.forEach(this.map::removeCallable);
+        final Frame dropped = this.frame;
+        if (dropped.parent == null) {
+            throw new EmptyStackException();
+        }
+        final boolean owned = this.owner;
+        if (this.callableLimit() > 0) {
+            this.stamp++;
+        }
+        this.frame = dropped.parent;
+        this.owner = owned && dropped.parentOwned;
+        this.declaredLimit = dropped.parentDeclared;
+        this.callableLimit = dropped.parentCallables;
+        this.indexLimit = dropped.parentIndexed;
+
+        if (dropped.viewed) {
+            // captures of the dropped frame can still reach its parent
+            dropped.parent.viewed = true;
+        } else if (owned) {
+            dropped.truncate();
+            dropped.nextFree = this.free;
+            this.free = dropped;
+        }
     }
 
     @Override
     public int localSize() {
-        return this.byIndex.size();
+        return this.indexLimit();
     }
 
     public Scope captureWithPath(final @Nullable String filePath) throws JelException {
@@ -132,58 +282,140 @@ public final class Scope implements ReferenceAccessor {
     }
 
     private Scope withFilePath(final @Nullable String filePath) {
+        this.frame.viewed = true;
         return new Scope(
             filePath,
-            this.copyIndexStack(),
-            this.copyMap(),
-            this.copyFrames(),
-            this.copyFrame(),
-            this.copyByIndex());
+            this.frame,
+            false,
+            this.declaredLimit(),
+            this.callableLimit(),
+            this.indexLimit());
     }
 
     public void dispose() {
-        this.indexStack.clear();
-        this.map.clear();
-        this.frames.clear();
-        this.byIndex.clear();
-        this.frame.callables.clear();
-        this.frame.references.clear();
-    }
-
-    // ignoring deep copies for now
-    private Stack<JsonArray> copyIndexStack() {
-        final Stack<JsonArray> out = new Stack<>();
-        out.addAll(this.indexStack);
-        return out;
+        // frames may still be viewed by captures
+        this.frame = new Frame();
+        this.owner = true;
+        this.free = null;
+        this.stamp++;
     }
 
-    private JelObject copyMap() {
-        return (JelObject) this.map.shallowCopy();
+    private Frame writable() {
+        if (!this.owner) {
+            this.frame = this.frame.copy(
+                this.declaredLimit, this.callableLimit, this.indexLimit);
+            this.owner = true;
+        }
+        return this.frame;
     }
 
-    private Stack<Frame> copyFrames() {
-        final Stack<Frame> copy = new Stack<>();
-        this.frames.forEach(frame -> copy.add(frame.copy()));
-        return copy;
+    private int declaredLimit() {
+        return this.owner ? this.frame.declared.size() : this.declaredLimit;
     }
 
-    private Frame copyFrame() {
-        return this.frame.copy();
+    private int callableLimit() {
+        return this.owner ? this.frame.callables.size() : this.callableLimit;
     }
 
-    private JsonArray copyByIndex() {
-        return new JsonArray().addAll(this.byIndex);
+    private int indexLimit() {
+        return this.owner ? this.frame.byIndex.size() : this.indexLimit;
     }
 
     private static class Frame {
-        final List<String> references = new ArrayList<>();
-        final List<String> callables = new ArrayList<>();
+        final Table<JsonReference> declared = new Table<>();
+        final Table<Callable> callables = new Table<>();
+        final List<JsonReference> byIndex = new ArrayList<>();
+        @Nullable Frame parent;
+        boolean parentOwned;
+        int parentDeclared;
+        int parentCallables;
+        int parentIndexed;
+        boolean viewed;
+        @Nullable Frame nextFree;
+
+        void link(
+                final @Nullable Frame parent,
+                final boolean parentOwned,
+                final int parentDeclared,
+                final int parentCallables,
+                final int parentIndexed) {
+            this.parent = parent;
+            this.parentOwned = parentOwned;
+            this.parentDeclared = parentDeclared;
+            this.parentCallables = parentCallables;
+            this.parentIndexed = parentIndexed;
+        }
 
-        Frame copy() {
+        Frame copy(final int declared, final int callables, final int indexed) {
             final Frame copy = new Frame();
-            copy.references.addAll(this.references);
-            copy.callables.addAll(this.callables);
+            copy.link(
+                this.parent, false, this.parentDeclared, this.parentCallables, this.parentIndexed);
+            this.declared.copyInto(copy.declared, declared);
+            this.callables.copyInto(copy.callables, callables);
+            copy.byIndex.addAll(this.byIndex.subList(0, indexed));
             return copy;
         }
+
+        void truncate() {
+            this.declared.truncate(0);
+            this.callables.truncate(0);
+            this.byIndex.clear();
+            this.link(null, false, 0, 0, 0);
+        }
+    }
+
+    private static class Table<T> {
+        final List<String> keys = new ArrayList<>();
+        final List<T> values = new ArrayList<>();
+        final Map<String, Integer> latest = new HashMap<>();
+        int[] previous = new int[8];
+
+        int size() {
+            return this.keys.size();
+        }
+
+        void add(final String key, final T value) {
+            final int index = this.keys.size();
+            final Integer last = this.latest.put(key, index);
+            if (index == this.previous.length) {
+                this.previous = Arrays.copyOf(this.previous, index * 2);
+            }
+            this.previous[index] = last != null ? last : -1;
+            this.keys.add(key);
+            this.values.add(value);
+        }
+
+        int indexOf(final String key, final int limit) {
+            final Integer latest = this.latest.get(key);
+            int index = latest != null ? latest : -1;
+            while (index >= limit) {
+                index = this.previous[index];
+            }
+            return index;
+        }
+
+        void truncate(final int size) {
+            final int len = this.keys.size();
+            if (size == 0) {
+                this.latest.clear();
+            } else {
+                for (int i = len - 1; i >= size; i--) {
+                    final int previous = this.previous[i];
+                    if (previous == -1) {
+                        this.latest.remove(this.keys.get(i));
+                    } else {
+                        this.latest.put(this.keys.get(i), previous);
+                    }
+                }
+            }
+            this.keys.subList(size, len).clear();
+            this.values.subList(size, len).clear();
+        }
+
+        void copyInto(final Table<T> table, final int limit) {
+            for (int i = 0; i < limit; i++) {
+                table.add(this.keys.get(i), this.values.get(i));
+            }
+        }
     }
 }
@@ -0,0 +1,121 @@
+package xjs.jel.scope;
+
+import xjs.jel.Alias;
+import xjs.jel.JelMember;
+import xjs.jel.expression.Expression;
+import xjs.jel.modifier.ArrayGeneratorModifier;
+import xjs.jel.modifier.DefaultsModifier;
+import xjs.jel.modifier.DestructureModifier;
+import xjs.jel.modifier.ImportModifier;
+import xjs.jel.modifier.Modifier;
+import xjs.jel.modifier.RequireModifier;
+import xjs.jel.modifier.TemplateModifier;
+import xjs.jel.path.JsonPath;
+import xjs.jel.path.KeyComponent;
+import xjs.jel.sequence.AliasType;
+import xjs.jel.sequence.Sequence;
+import xjs.serialization.Span;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Binds the head of every path in a body to its slot when the name can
+ * only ever refer to the owner's local. This pass is conservative: any
+ * name which is redeclared anywhere in the body is left to the dynamic
+ * lookup, and any construct which declares names that can't be known
+ * statically disables binding for the whole body.
+ */
+final class SlotResolver {
+    private static final String[] GENERATOR_NAMES = { "i", "v" };
+
+    private final LocalSlots slots;
+    private final Set<String> declared = new HashSet<>();
+    private final List<KeyComponent> candidates = new ArrayList<>();
+
+    SlotResolver(final LocalSlots slots) {
+        this.slots = slots;
+    }
+
+    void resolve(final Expression body, final List<Modifier> captures) {
+        if (!this.visitModifiers(captures) || !this.visitExpression(body)) {
+            return;
+        }
+        final List<String> names = this.slots.names();
+        for (final KeyComponent key : this.candidates) {
+            if (!this.declared.contains(key.key)) {
+                key.bindSlot(this.slots, names.indexOf(key.key));
+            }
+        }
+    }
+
+    private boolean visitExpression(final Expression exp) {
+        // runtime expressions can't be inspected
+        return exp instanceof Span<?> && this.visit((Span<?>) exp);
+    }
+
+    private boolean visit(final Span<?> span) {
+        if (span instanceof JelMember) {
+            return this.visitMember((JelMember) span);
+        } else if (span instanceof JsonPath) {
+            final List<? extends Span<?>> spans = ((JsonPath) span).spans();
+            if (!spans.isEmpty() && spans.get(0) instanceof KeyComponent) {
+                final KeyComponent head = (KeyComponent) spans.get(0);
+                if (this.slots.names().contains(head.key)) {
+                    this.candidates.add(head);
+                }
+            }
+        }
+        if (span instanceof Sequence<?>) {
+            for (final Span<?> sub : ((Sequence<?>) span).spans()) {
+                if (!this.visit(sub)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean visitMember(final JelMember member) {
+        final Alias alias = member.getAlias();
+        if (alias != null) {
+            final AliasType type = alias.aliasType();
+            if (type == AliasType.LITERAL) {
+                this.declared.add(alias.key());
+            } else if (type == AliasType.DESTRUCTURE || type == AliasType.REFERENCE) {
+                return false;
+            }
+        }
+        if (!this.visitModifiers(member.getModifiers())) {
+            return false;
+        }
+        // nested templates may be called after the owner has exited
+        return member.isTemplate() || this.visitExpression(member.getExpression());
+    }
+
+    private boolean visitModifiers(final List<Modifier> modifiers) {
+        for (final Modifier modifier : modifiers) {
+            if (modifier instanceof TemplateModifier) {
+                continue;
+            } else if (modifier instanceof DefaultsModifier
+                    || modifier instanceof DestructureModifier
+                    || modifier instanceof ImportModifier
+                    || modifier instanceof RequireModifier) {
+                return false;
+            } else if (modifier instanceof ArrayGeneratorModifier) {
+                for (final String name : GENERATOR_NAMES) {
+                    this.declared.add(name);
+                }
+            }
+            if (modifier instanceof Span<?> && !this.visit((Span<?>) modifier)) {
+                return false;
+            }
+            if (modifier.capturesModifiers() && !this.visitModifiers(modifier.getCaptures())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -112,6 +112,11 @@ public abstract class Sequence<T extends Span<?>>
         throw new UnsupportedOperationException("not primitive");
     }
 
+    // swaps a sub for an equivalent sequence, such as a folded constant
+    public void replace(final int index, final Sequence<?> sub) {
+        throw new UnsupportedOperationException("subs cannot be replaced");
+    }
+
     @NotNull
     @Override
     public Itr iterator() {
@@ -157,6 +162,11 @@ public abstract class Sequence<T extends Span<?>>
             return this;
         }
 
+        @Override
+        public void replace(final int index, final Sequence<?> sub) {
+            this.subs.set(index, sub);
+        }
+
         @Override
         public List<Span<?>> flatten() {
             final List<Span<?>> flat = new ArrayList<>();
@@ -208,6 +218,11 @@ public abstract class Sequence<T extends Span<?>>
             super(type, s, e, subs);
         }
 
+        @Override
+        public void replace(final int index, final Sequence<?> sub) {
+            this.subs.set(index, sub);
+        }
+
         @Override
         public boolean isPrimitive() {
             return false;
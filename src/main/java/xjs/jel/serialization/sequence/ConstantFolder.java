@@ -0,0 +1,133 @@
+package xjs.jel.serialization.sequence;
+
+import org.jetbrains.annotations.Nullable;
+import xjs.core.JsonValue;
+import xjs.jel.JelMember;
+import xjs.jel.exception.JelException;
+import xjs.jel.expression.DefaultCaseExpression;
+import xjs.jel.expression.Expression;
+import xjs.jel.expression.LiteralExpression;
+import xjs.jel.expression.OperatorExpression;
+import xjs.jel.expression.StringExpression;
+import xjs.jel.expression.TupleExpression;
+import xjs.jel.sequence.ModifyingOperatorSequence;
+import xjs.jel.sequence.OperatorSequence;
+import xjs.jel.sequence.Sequence;
+import xjs.serialization.Span;
+import xjs.serialization.token.Token;
+
+import java.util.List;
+
+public class ConstantFolder extends ParserModule {
+
+    public ConstantFolder(final Sequencer sequencer) {
+        super(sequencer);
+    }
+
+    public Sequence<?> fold(final Sequence<?> sequence) {
+        this.visit(sequence);
+        return sequence;
+    }
+
+    protected void visit(final Span<?> span) {
+        if (span instanceof JelMember) {
+            this.foldMember((JelMember) span);
+        }
+        if (span instanceof Sequence<?>) {
+            final Sequence<?> sequence = (Sequence<?>) span;
+            final Span<?> replaced = getFoldedSource(span);
+            final List<? extends Span<?>> spans = sequence.spans();
+            for (int i = 0; i < spans.size(); i++) {
+                final Span<?> sub = spans.get(i);
+                if (sub == replaced) {
+                    continue;
+                }
+                final LiteralExpression folded =
+                    this.canReplace(sequence, i) ? this.tryFold(sub) : null;
+                if (folded != null) {
+                    sequence.replace(i, folded);
+                } else {
+                    this.visit(sub);
+                }
+            }
+        }
+    }
+
+    protected void foldMember(final JelMember member) {
+        final Expression exp = member.getExpression();
+        if (exp instanceof Span<?>) {
+            final LiteralExpression folded = this.tryFold((Span<?>) exp);
+            if (folded != null) {
+                member.setExpression(folded);
+            }
+        }
+    }
+
+    protected @Nullable LiteralExpression tryFold(final Span<?> span) {
+        if (!(span instanceof OperatorExpression || span instanceof StringExpression)) {
+            return null;
+        }
+        if (this.isConstant(span)) {
+            final JsonValue value = tryEvaluate((Expression) span);
+            if (value != null) {
+                return LiteralExpression.folded((Sequence<?>) span, value);
+            }
+        }
+        return null;
+    }
+
+    // operands and arguments are the only positions read as plain expressions
+    protected boolean canReplace(final Sequence<?> parent, final int i) {
+        if (parent instanceof TupleExpression) {
+            return true;
+        } else if (parent instanceof OperatorExpression) {
+            // an operand directly after another is an implicit multiplication
+            return i == 0 || !(parent.spans().get(i - 1) instanceof Expression);
+        }
+        return false;
+    }
+
+    private static @Nullable Span<?> getFoldedSource(final Span<?> span) {
+        if (span instanceof JelMember) {
+            final Expression exp = ((JelMember) span).getExpression();
+            if (exp instanceof LiteralExpression.Folded) {
+                return ((LiteralExpression.Folded) exp).getSource();
+            }
+        }
+        return null;
+    }
+
+    protected boolean isConstant(final Span<?> span) {
+        if (span instanceof Token
+                || span instanceof OperatorSequence
+                || span instanceof ModifyingOperatorSequence) {
+            return true;
+        } else if (span instanceof LiteralExpression) {
+            return !(span instanceof LiteralExpression.OfValue);
+        } else if (span instanceof JelMember) {
+            final JelMember member = (JelMember) span;
+            return member.getModifiers().isEmpty()
+                && member.getExpression() instanceof Span<?>
+                && this.isConstant((Span<?>) member.getExpression());
+        } else if (span instanceof DefaultCaseExpression) {
+            return false;
+        } else if (span instanceof OperatorExpression || span instanceof StringExpression) {
+            for (final Span<?> sub : ((Sequence<?>) span).spans()) {
+                if (!this.isConstant(sub)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // errors are left for evaluation so they can be reported with context
+    protected static @Nullable JsonValue tryEvaluate(final Expression exp) {
+        try {
+            return exp.apply(null);
+        } catch (final JelException | ArithmeticException ignored) {
+            return null;
+        }
+    }
+}
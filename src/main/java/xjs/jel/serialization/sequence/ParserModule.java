@@ -21,6 +21,10 @@ public class ParserModule {
         return this.sequencer.conditionalParser;
     }
 
+    protected final ConstantFolder constantFolder() {
+        return this.sequencer.constantFolder;
+    }
+
     protected final DestructureParser destructureParser() {
         return this.sequencer.destructureParser;
     }
@@ -17,6 +17,7 @@ public class Sequencer {
 
     protected final ArrayParser arrayParser;
     protected final ConditionalParser conditionalParser;
+    protected final ConstantFolder constantFolder;
     protected final DestructureParser destructureParser;
     protected final ElementParser elementParser;
     protected final KeyParser keyParser;
@@ -33,6 +34,7 @@ public class Sequencer {
     public Sequencer(final Builder builder) {
         this.arrayParser = builder.arrayParser.apply(this);
         this.conditionalParser = builder.conditionalParser.apply(this);
+        this.constantFolder = builder.constantFolder.apply(this);
         this.destructureParser = builder.destructureParser.apply(this);
         this.elementParser = builder.elementParser.apply(this);
         this.keyParser = builder.keyParser.apply(this);
@@ -62,6 +64,11 @@ public class Sequencer {
 
     public Sequence<?> parse(
             final ContainerToken tokens) throws JelException {
+        return this.constantFolder.fold(this.parseUnfolded(tokens));
+    }
+
+    protected Sequence<?> parseUnfolded(
+            final ContainerToken tokens) throws JelException {
         if (this.isOpenRoot(tokens)) {
             return this.readOpenRoot(tokens);
         }
@@ -87,6 +94,7 @@ public class Sequencer {
     public static class Builder {
         private Function<Sequencer, ArrayParser> arrayParser = ArrayParser::new;
         private Function<Sequencer, ConditionalParser> conditionalParser = ConditionalParser::new;
+        private Function<Sequencer, ConstantFolder> constantFolder = ConstantFolder::new;
         private Function<Sequencer, DestructureParser> destructureParser = DestructureParser::new;
         private Function<Sequencer, ElementParser> elementParser = ElementParser::new;
         private Function<Sequencer, KeyParser> keyParser = KeyParser::new;
@@ -112,6 +120,11 @@ public class Sequencer {
             return this;
         }
 
+        public Builder constantFolder(final Function<Sequencer, ConstantFolder> constantFolder) {
+            this.constantFolder = constantFolder;
+            return this;
+        }
+
         public Builder destructureParser(final Function<Sequencer, DestructureParser> destructureParser) {
             this.destructureParser = destructureParser;
             return this;
@@ -0,0 +1,83 @@
+package xjs.jel.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The offset of every line in a body of text, so that individual lines can
+ * be sliced out of it without scanning from the start.
+ *
+ * <p>Lines are terminated in the same way as {@link java.io.BufferedReader},
+ * i.e. by <code>\n</code>, <code>\r</code>, or <code>\r\n</code>.
+ */
+public final class LineIndex {
+    private final String text;
+    private final int[] starts;
+
+    private LineIndex(final String text, final int[] starts) {
+        this.text = text;
+        this.starts = starts;
+    }
+
+    public static LineIndex of(final String text) {
+        int[] starts = new int[16];
+        int n = 1;
+        final int len = text.length();
+        for (int i = 0; i < len; i++) {
+            final char c = text.charAt(i);
+            if (c == '\n' || (c == '\r' && (i + 1 == len || text.charAt(i + 1) != '\n'))) {
+                if (n == starts.length) {
+                    starts = Arrays.copyOf(starts, n * 2);
+                }
+                starts[n++] = i + 1;
+            }
+        }
+        return new LineIndex(text, Arrays.copyOf(starts, n));
+    }
+
+    public String getText() {
+        return this.text;
+    }
+
+    // the number of lines, not counting an empty line after the final terminator
+    public int size() {
+        final int n = this.starts.length;
+        return this.starts[n - 1] == this.text.length() ? n - 1 : n;
+    }
+
+    // the offset of the first character in the line, or -1 if out of bounds
+    public int startOf(final int line) {
+        if (line < 0 || line >= this.starts.length) {
+            return -1;
+        }
+        return this.starts[line];
+    }
+
+    public int lineOf(final int offset) {
+        final int i = Arrays.binarySearch(this.starts, offset);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    public String getLine(final int line) {
+        final int s = this.starts[line];
+        final int e;
+        if (line + 1 < this.starts.length) {
+            final int next = this.starts[line + 1];
+            e = next >= 2 && this.text.charAt(next - 1) == '\n' && this.text.charAt(next - 2) == '\r'
+                ? next - 2 : next - 1;
+        } else {
+            e = this.text.length();
+        }
+        return this.text.substring(s, e);
+    }
+
+    public List<String> getLines(final int s, final int e) {
+        final int last = Math.min(e, this.size() - 1);
+        final List<String> lines = new ArrayList<>(Math.max(0, last - s + 1));
+        for (int i = Math.max(0, s); i <= last; i++) {
+            lines.add(this.getLine(i));
+        }
+        return lines;
+    }
+}
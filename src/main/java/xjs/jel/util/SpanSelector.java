@@ -2,11 +2,8 @@ package xjs.jel.util;
 
 import xjs.serialization.Span;
 
-import java.io.BufferedReader;
-import java.io.StringReader;
 import java.util.BitSet;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public final class SpanSelector {
     private static final int LINE_LENGTH = 75;
@@ -16,6 +13,11 @@ public final class SpanSelector {
 
     public static String underline(
             final String fullText, final List<Span<?>> spans) {
+        return underline(LineIndex.of(fullText), spans);
+    }
+
+    public static String underline(
+            final LineIndex fullText, final List<Span<?>> spans) {
         final int len = spans.size();
         if (len == 0) {
             return "";
@@ -30,17 +32,17 @@ public final class SpanSelector {
     }
 
     private static String underlineSingle(
-            final List<Span<?>> spans, final String fullText, final int n) {
+            final List<Span<?>> spans, final LineIndex fullText, final int n) {
         final StringBuilder sb = new StringBuilder();
-        final String line = getLines(fullText, n, n).get(0);
+        final String line = fullText.getLines(n, n).get(0);
         addLine(spans, sb, fullText, line, n);
         return sb.toString();
     }
 
     private static String underlineMulti(
-            final List<Span<?>> spans, final String fullText, final int s, final int e) {
+            final List<Span<?>> spans, final LineIndex fullText, final int s, final int e) {
         final StringBuilder sb = new StringBuilder();
-        final List<String> lines = getLines(fullText, s, e);
+        final List<String> lines = fullText.getLines(s, e);
         int n = s;
         for (final String line : lines) {
             addLine(spans, sb, fullText, line, n);
@@ -49,17 +51,9 @@ public final class SpanSelector {
         return sb.toString();
     }
 
-    private static List<String> getLines(
-            final String fullText, final int s, final int e) {
-        return new BufferedReader(new StringReader(fullText)).lines()
-            .skip(s)
-            .limit(e - s + 1)
-            .collect(Collectors.toList());
-    }
-
     private static void addLine(
             final List<Span<?>> spans, final StringBuilder sb,
-            final String fullText, final String line, final int n) {
+            final LineIndex fullText, final String line, final int n) {
         addLineNumber(sb, n);
         sb.append(" | ");
 
@@ -121,7 +115,7 @@ public final class SpanSelector {
 
     private static void addUnderline(
             final List<Span<?>> spans, final StringBuilder sb,
-            final String fullText, final String line, final int n, final int o) {
+            final LineIndex fullText, final String line, final int n, final int o) {
         final BitSet underline = new BitSet(LINE_LENGTH);
         for (final Span<?> span : spans) {
             if (span.start() < 0) {
@@ -141,7 +135,7 @@ public final class SpanSelector {
                     underline.set(i);
                 }
             } else if (span.line() < n && span.lastLine() == n) {
-                final int end = getEndOffset(fullText, span);
+                final int end = getEndOffset(fullText.getText(), span);
                 for (int i = 0; i < end; i++) {
                     underline.set(i);
                 }
@@ -7,6 +7,11 @@ public final class SpanUtils {
 
     public static Span<?> fromSyntaxException(
             final String fullText, final SyntaxException e) {
+        return fromSyntaxException(LineIndex.of(fullText), e);
+    }
+
+    public static Span<?> fromSyntaxException(
+            final LineIndex fullText, final SyntaxException e) {
         final int s = getIndex(fullText, e);
         final int l = e.getLine();
         final int o = e.getColumn();
@@ -14,7 +19,7 @@ public final class SpanUtils {
     }
 
     private static int getIndex(
-            final String fullText, final SyntaxException e) {
+            final LineIndex fullText, final SyntaxException e) {
         final int l = indexOfLine(fullText, e.getLine());
         if (l < 0) {
             return l;
@@ -22,14 +27,12 @@ public final class SpanUtils {
         return l + e.getColumn();
     }
 
-    private static int indexOfLine(final String s, int l) {
+    // the offset of the terminator before the line, or 0 for the first line
+    private static int indexOfLine(final LineIndex index, final int l) {
         if (l == 0) {
             return 0;
         }
-        int idx = s.indexOf('\n');
-        while (idx != -1 && --l > 0) {
-            idx = s.indexOf('\n', idx + 1);
-        }
-        return idx;
+        final int start = index.startOf(l);
+        return start < 0 ? -1 : start - 1;
     }
 }
@@ -0,0 +1,90 @@
+package xjs.jel;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class JelContextTest {
+
+    @TempDir
+    File dir;
+
+    @Test
+    public void getFullText_withCompressedRetention_returnsSourceText() throws IOException {
+        final File file = this.write("a: 1\nb: 2\n");
+        final String expected = this.load(file, SourceRetention.ALWAYS).getFullText();
+        final JelContext.Output output = this.load(file, SourceRetention.COMPRESSED);
+
+        assertNotNull(expected);
+        assertEquals(expected, output.getFullText());
+    }
+
+    @Test
+    public void getFullText_withoutRetention_rereadsSourceText() throws IOException {
+        final File file = this.write("a: 1\nb: 2\n");
+        final String expected = this.load(file, SourceRetention.ALWAYS).getFullText();
+        final JelContext.Output output = this.load(file, SourceRetention.NEVER);
+
+        assertNotNull(expected);
+        assertEquals(expected, output.getFullText());
+    }
+
+    @Test
+    public void getFullText_withoutRetention_whenFileChanges_returnsNull() throws IOException {
+        final File file = this.write("a: 1\n");
+        final JelContext.Output output = this.load(file, SourceRetention.NEVER);
+        Files.writeString(file.toPath(), "a: 2\n");
+
+        assertNull(output.getFullText());
+        assertNull(output.getLineIndex());
+    }
+
+    @Test
+    public void getFullText_withoutRetention_whenFileIsTouched_returnsNull() throws IOException {
+        final File file = this.write("a: 1\n");
+        final JelContext.Output output = this.load(file, SourceRetention.NEVER);
+        assertTrue(file.setLastModified(file.lastModified() + 10_000));
+
+        assertNull(output.getFullText());
+    }
+
+    @Test
+    public void getFullText_withoutRetention_whenFileHasErrors_rereadsSourceText() throws IOException {
+        final File file = this.write("a: [ 1, 2\n");
+        final String expected = this.load(file, SourceRetention.ALWAYS).getFullText();
+        final JelContext.Output output = this.load(file, SourceRetention.NEVER);
+
+        assertNotNull(output.getThrown());
+        assertEquals(expected, output.getFullText());
+    }
+
+    @Test
+    public void getFullText_withErrorsOnlyRetention_keepsTextOfErrors() throws IOException {
+        final File file = this.write("a: [ 1, 2\n");
+        final JelContext.Output output = this.load(file, SourceRetention.ERRORS_ONLY);
+        Files.writeString(file.toPath(), "");
+
+        assertNotNull(output.getThrown());
+        assertNotNull(output.getFullText());
+    }
+
+    private File write(final String text) throws IOException {
+        final File file = new File(this.dir, "test.xjs");
+        Files.writeString(file.toPath(), text);
+        return file;
+    }
+
+    private JelContext.Output load(final File file, final SourceRetention retention) {
+        final JelContext ctx = new JelContext(this.dir);
+        ctx.setSourceRetention(retention);
+        return ctx.getOrLoadFile(file, Privilege.ALL);
+    }
+}
@@ -4,8 +4,16 @@ import org.junit.jupiter.api.Test;
 import xjs.core.Json;
 import xjs.core.JsonValue;
 import xjs.jel.exception.JelException;
+import xjs.jel.expression.Callable;
+import xjs.jel.expression.LiteralExpression;
 import xjs.jel.lang.JelFunctions;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 public final class JelFunctionsTest {
 
     @Test
@@ -16,4 +24,116 @@ public final class JelFunctionsTest {
                 .call(null, null, Json.value(1234), Json.value(5678))
                 .apply(null);
     }
+
+    @Test
+    public void lookup_forPureBuiltin_isPure() {
+        final Callable size = JelFunctions.lookup("size");
+
+        assertTrue(JelFunctions.isPure(size));
+        assertEquals(Effect.NONE, ((JelFunctions.Function) size).getEffects());
+    }
+
+    @Test
+    public void lookup_forImpureBuiltins_describesEffects() {
+        final JelFunctions.Function rand = (JelFunctions.Function) JelFunctions.lookup("rand");
+        final JelFunctions.Function remove = (JelFunctions.Function) JelFunctions.lookup("remove");
+
+        assertFalse(rand.isDeterministic());
+        assertFalse(rand.mutatesSelf());
+        assertTrue(remove.isDeterministic());
+        assertTrue(remove.mutatesSelf());
+    }
+
+    @Test
+    public void register_withoutEffects_isAssumedImpure() {
+        JelFunctions.register("testUnknownEffects", (self, ctx, args) -> LiteralExpression.of(1));
+
+        assertEquals(Effect.UNKNOWN, JelFunctions.getEffects("testUnknownEffects"));
+        assertFalse(JelFunctions.isPure(JelFunctions.lookup("testUnknownEffects")));
+        assertTrue(JelFunctions.mutatesSelf("testUnknownEffects"));
+    }
+
+    @Test
+    public void register_withEffects_isSurfacedThroughLookup() {
+        JelFunctions.register("testPure", Privilege.NONE, Effect.NONE,
+            (self, ctx, args) -> LiteralExpression.of(1));
+
+        assertTrue(JelFunctions.isPure(JelFunctions.lookup("testPure")));
+    }
+
+    @Test
+    public void lookup_withoutPrivilege_reusesDenial() {
+        final Callable first = JelFunctions.lookup(Privilege.NONE, "file");
+
+        assertSame(first, JelFunctions.lookup(Privilege.NONE, "file"));
+        assertFalse(first instanceof JelFunctions.Function);
+    }
+
+    @Test
+    public void takesPattern_isDeclaredByRegisteredFunction() {
+        JelFunctions.register("testNoPattern", (self, ctx, args) -> LiteralExpression.of(1));
+
+        assertTrue(JelFunctions.takesPattern("matches"));
+        assertTrue(JelFunctions.takesPattern("replace"));
+        assertFalse(JelFunctions.takesPattern("testNoPattern"));
+        assertFalse(JelFunctions.takesPattern("unknown"));
+    }
+
+    @Test
+    public void indexBy_getsFirstElementForEachKey() throws JelException {
+        final JsonValue array = Json.array()
+            .add(Json.object().add("id", "a").add("n", 1))
+            .add(Json.object().add("id", "b").add("n", 2))
+            .add(Json.object().add("id", "a").add("n", 3))
+            .add(Json.object().add("n", 4));
+        final JsonValue index =
+            JelFunctions.lookup("indexBy")
+                .call(array, JelContext.GLOBAL_CONTEXT, Json.value("id"))
+                .apply(JelContext.GLOBAL_CONTEXT);
+
+        assertEquals(2, index.asObject().size());
+        assertEquals(1, index.asObject().get("a").asObject().get("n").asInt());
+        assertEquals(2, index.asObject().get("b").asObject().get("n").asInt());
+    }
+
+    @Test
+    public void indexBy_copiesElements() throws JelException {
+        final JsonValue array = Json.array()
+            .add(Json.object().add("id", "a"));
+        final JsonValue index =
+            JelFunctions.lookup("indexBy")
+                .call(array, JelContext.GLOBAL_CONTEXT, Json.value("id"))
+                .apply(JelContext.GLOBAL_CONTEXT);
+
+        assertNotSame(array.asArray().get(0), index.asObject().get("a"));
+        assertTrue(array.asArray().get(0).matches(index.asObject().get("a")));
+    }
+
+    @Test
+    public void groupBy_collectsElementsForEachKey() throws JelException {
+        final JsonValue array = Json.array()
+            .add(Json.object().add("id", "a").add("n", 1))
+            .add(Json.object().add("id", "b").add("n", 2))
+            .add(Json.object().add("id", "a").add("n", 3));
+        final JsonValue groups =
+            JelFunctions.lookup("groupBy")
+                .call(array, JelContext.GLOBAL_CONTEXT, Json.value("id"))
+                .apply(JelContext.GLOBAL_CONTEXT);
+
+        assertEquals(2, groups.asObject().get("a").asArray().size());
+        assertEquals(3, groups.asObject().get("a").asArray().get(1).asObject().get("n").asInt());
+        assertEquals(1, groups.asObject().get("b").asArray().size());
+    }
+
+    @Test
+    public void groupBy_copiesElements() throws JelException {
+        final JsonValue array = Json.array()
+            .add(Json.object().add("id", "a"));
+        final JsonValue groups =
+            JelFunctions.lookup("groupBy")
+                .call(array, JelContext.GLOBAL_CONTEXT, Json.value("id"))
+                .apply(JelContext.GLOBAL_CONTEXT);
+
+        assertNotSame(array.asArray().get(0), groups.asObject().get("a").asArray().get(0));
+    }
 }
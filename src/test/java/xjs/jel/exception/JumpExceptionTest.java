@@ -0,0 +1,28 @@
+package xjs.jel.exception;
+
+import org.junit.jupiter.api.Test;
+import xjs.core.Json;
+import xjs.serialization.token.ParsedToken;
+import xjs.serialization.token.TokenType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class JumpExceptionTest {
+
+    @Test
+    public void jump_doesNotRecordStackTrace() {
+        final ReturnException e =
+            new ReturnException(new ParsedToken(TokenType.WORD, "return"), Json.value(1));
+
+        assertEquals(0, e.getStackTrace().length);
+    }
+
+    @Test
+    public void jump_doesNotRecordSuppressedExceptions() {
+        final YieldException e =
+            new YieldException(new ParsedToken(TokenType.WORD, "yield"), Json.value(1));
+        e.addSuppressed(new IllegalStateException());
+
+        assertEquals(0, e.getSuppressed().length);
+    }
+}
@@ -13,8 +13,11 @@ import xjs.serialization.token.SymbolToken;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static xjs.jel.sequence.Operator.ADD;
 import static xjs.jel.sequence.Operator.MULTIPLY;
+import static xjs.jel.sequence.Operator.POW;
 import static xjs.jel.sequence.Operator.RIGHT_SHIFT;
 import static xjs.jel.sequence.ModifyingOperator.INVERT;
 
@@ -70,6 +73,32 @@ public final class ArithmeticExpressionTest {
         assertEquals(Json.value(-9), exp.apply(null));
     }
 
+    @Test
+    public void apply_withHighPrecedenceOperators_evaluatesRightToLeft() throws JelException {
+        final Expression exp =
+            exp(num(2), op(POW), num(3), op(MULTIPLY), num(2));
+
+        assertEquals(Json.value(64), exp.apply(null));
+    }
+
+    @Test
+    public void apply_whenFirstValueIsNotANumber_appliesOperatorExpression() throws JelException {
+        final Expression exp =
+            exp(LiteralExpression.of("ab"), op(ADD), num(1));
+
+        assertTrue(Json.value("ab1").matches(exp.apply(null)));
+    }
+
+    @Test
+    public void getCompiled_reusesCompiledExpression() throws JelException {
+        final ArithmeticExpression exp =
+            exp(num(1), op(ADD), num(2), op(MULTIPLY), num(3));
+
+        assertSame(exp.getCompiled(null), exp.getCompiled(null));
+        assertEquals(Json.value(7), exp.apply(null));
+        assertEquals(Json.value(7), exp.apply(null));
+    }
+
     private static ArithmeticExpression exp(final Sequence<?>... subs) {
         return new ArithmeticExpression(List.of(subs), false);
     }
@@ -53,6 +53,19 @@ public final class ArrayGeneratorExpressionTest {
         assertTrue(Json.array(0, 1, 2).matches(exp.apply(this.ctx)));
     }
 
+    @Test
+    public void generator_bindsVariables_toSlots() throws JelException {
+        final KeyComponent i = key("i");
+        final KeyComponent v = key("v");
+        final Expression exp = exp(
+            values(1, 2, 3),
+            math(path(i), op(Operator.ADD), path(v)));
+
+        assertTrue(Json.array(1, 3, 5).matches(exp.apply(this.ctx)));
+        assertTrue(i.isSlotBound());
+        assertTrue(v.isSlotBound());
+    }
+
     private static ArrayGeneratorExpression exp(
             final TupleExpression input, final Expression out) {
         return new ArrayGeneratorExpression(input, new ArrayList<>(), out);
@@ -3,17 +3,22 @@ package xjs.jel.expression;
 import org.junit.jupiter.api.Test;
 import xjs.core.Json;
 import xjs.core.JsonObject;
+import xjs.core.JsonValue;
+import xjs.jel.JelContext;
 import xjs.jel.exception.JelException;
+import xjs.jel.sequence.JelType;
 import xjs.jel.sequence.ModifyingOperator;
 import xjs.jel.sequence.ModifyingOperatorSequence;
 import xjs.jel.sequence.Operator;
 import xjs.jel.sequence.OperatorSequence;
 import xjs.jel.sequence.Sequence;
 import xjs.serialization.token.SymbolToken;
+import xjs.serialization.token.Token;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static xjs.jel.sequence.Operator.AND;
 import static xjs.jel.sequence.Operator.EQUAL_TO;
 import static xjs.jel.sequence.Operator.GREATER_THAN;
@@ -151,6 +156,38 @@ public final class BooleanExpressionTest {
         assertEquals(Json.value(true), exp.apply(null));
     }
 
+    @Test
+    public void applyAsBoolean_comparesNegatedNumbers() throws JelException {
+        final Expression exp =
+            exp(num(1), op(GREATER_THAN), modOp(ModifyingOperator.INVERT), num(2));
+
+        assertTrue(exp.applyAsBoolean(null));
+    }
+
+    @Test
+    public void apply_withAnd_whenLhsIsFalse_doesNotEvaluateRhs() throws JelException {
+        final Expression exp =
+            exp(bool(false), op(AND), unreachable(), op(LESS_THAN), num(1));
+
+        assertEquals(Json.value(false), exp.apply(null));
+    }
+
+    @Test
+    public void apply_withOr_whenLhsIsTrue_doesNotEvaluateRhs() throws JelException {
+        final Expression exp =
+            exp(bool(true), op(OR), unreachable());
+
+        assertEquals(Json.value(true), exp.apply(null));
+    }
+
+    @Test
+    public void apply_afterShortCircuit_continuesEvaluatingChain() throws JelException {
+        final Expression exp =
+            exp(bool(false), op(AND), unreachable(), op(OR), bool(true));
+
+        assertEquals(Json.value(true), exp.apply(null));
+    }
+
     private static BooleanExpression exp(final Sequence<?>... subs) {
         return new BooleanExpression(List.of(subs));
     }
@@ -167,6 +204,15 @@ public final class BooleanExpressionTest {
         return new ModifyingOperatorSequence(op, new SymbolToken('?'));
     }
 
+    private static LiteralExpression unreachable() {
+        return new LiteralExpression(JelType.BOOLEAN, (Token) null) {
+            @Override
+            public JsonValue apply(final JelContext ctx) {
+                throw new AssertionError("operand should not be evaluated");
+            }
+        };
+    }
+
     private static LiteralExpression bool(final boolean bool) {
         return LiteralExpression.of(bool);
     }
@@ -7,6 +7,7 @@ import xjs.core.JsonReference;
 import xjs.core.JsonValue;
 import xjs.jel.JelContext;
 import xjs.jel.exception.JelException;
+import xjs.jel.lang.CallCache;
 import xjs.jel.modifier.Modifier;
 import xjs.jel.modifier.TemplateModifier;
 import xjs.jel.path.KeyComponent;
@@ -26,7 +27,9 @@ import java.util.List;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -84,6 +87,98 @@ public final class TemplateExpressionTest {
         assertTrue(Json.value(25).matches(out.apply(this.ctx)));
     }
 
+    @Test
+    public void template_bindsParameters_toSlots() throws JelException {
+        final KeyComponent a = key("a");
+        final TemplateExpression exp = exp(path(a), "a");
+
+        assertTrue(Json.value(1).matches(this.call(exp, Json.value(1))));
+        assertTrue(a.isSlotBound());
+        assertTrue(Json.value(2).matches(this.call(exp, Json.value(2))));
+    }
+
+    @Test
+    public void template_returningTemplate_doesNotBindOuterParameters() throws JelException {
+        final KeyComponent a = key("a");
+        final KeyComponent b = key("b");
+        final Expression rhs = math(path(a), op(Operator.ADD), path(b));
+        final TemplateExpression exp = exp(rhs, List.of(modifier("b")), "a");
+
+        final Callable next = (Callable) exp.call(Json.object(), this.ctx, Json.value(10));
+        assertTrue(Json.value(25).matches(this.call(next, Json.value(15))));
+        assertFalse(a.isSlotBound());
+        assertTrue(b.isSlotBound());
+    }
+
+    @Test
+    public void template_composesModifiers_onlyOnce() throws JelException {
+        final int[] composed = { 0 };
+        final Modifier modifier = new Modifier() {
+            @Override
+            public Expression modify(final Expression expression) {
+                composed[0]++;
+                return expression;
+            }
+        };
+        final TemplateExpression exp = exp(path(key("a")), List.of(modifier), "a");
+
+        this.call(exp, Json.value(1));
+        this.call(exp, Json.value(2));
+        assertEquals(1, composed[0]);
+    }
+
+    @Test
+    public void template_returningTemplate_returnsNewClosure_eachCall() throws JelException {
+        final TemplateExpression exp = exp(path(key("a")), List.of(modifier("b")), "a");
+
+        final Expression first = exp.call(Json.object(), this.ctx, Json.value(1));
+        final Expression second = exp.call(Json.object(), this.ctx, Json.value(2));
+        assertNotSame(first, second);
+        assertTrue(Json.value(2).matches(this.call((Callable) second, Json.value(0))));
+    }
+
+    @Test
+    public void template_withCallCache_reusesResult_forMatchingArgs() throws JelException {
+        this.ctx.setCallCacheSize(16);
+        final TemplateExpression exp = exp(path(key("a")), "a");
+        exp.setCapture(this.ctx.getScope().capture());
+
+        assertTrue(Json.value(1).matches(this.call(exp, Json.value(1))));
+        assertTrue(Json.value(1).matches(this.call(exp, Json.value(1))));
+        assertTrue(Json.value(2).matches(this.call(exp, Json.value(2))));
+
+        final CallCache cache = this.ctx.getCallCache();
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void template_withCallCache_onDifferentReceivers_doesNotReuseResult() throws JelException {
+        this.ctx.setCallCacheSize(16);
+        final TemplateExpression exp = exp(path(key("a")), "a");
+        exp.setCapture(this.ctx.getScope().capture());
+
+        this.call(Json.object().add("x", 1), exp, Json.value(1));
+        this.call(Json.object().add("x", 2), exp, Json.value(1));
+
+        final CallCache cache = this.ctx.getCallCache();
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void template_withCallCache_whenValueIsWritten_discardsResults() throws JelException {
+        this.ctx.setCallCacheSize(16);
+        final TemplateExpression exp = exp(path(key("a")), "a");
+        exp.setCapture(this.ctx.getScope().capture());
+
+        this.call(exp, Json.value(1));
+        this.ctx.markWritten();
+        this.call(exp, Json.value(1));
+
+        assertEquals(0, this.ctx.getCallCache().getHits());
+    }
+
     private JsonValue call(final Callable callable, final JsonValue... args) throws JelException {
         return this.call(Json.object(), callable, args);
     }
@@ -1,6 +1,7 @@
 package xjs.jel.integration;
 
 import org.junit.jupiter.api.Test;
+import xjs.jel.Privilege;
 
 public final class GeneratorExpressionIntegrationTest extends AbstractIntegrationTest {
 
@@ -18,6 +19,21 @@ public final class GeneratorExpressionIntegrationTest extends AbstractIntegratio
             """);
     }
 
+    @Test
+    public void generator_callsTemplate_withArgumentsOfEachElement() {
+        this.inputSuccess("""
+            sum >> (x, y): $x + $y * 10
+            a >> [ 1, 2, 3 ]: $sum($v, $i)
+            """);
+        this.outputTrimmed("""
+            a: [
+              1
+              12
+              23
+            ]
+            """);
+    }
+
     @Test
     public void generator_copiesValuesFromExpansion() {
         this.inputSuccess("""
@@ -80,4 +96,37 @@ public final class GeneratorExpressionIntegrationTest extends AbstractIntegratio
             ]
             """);
     }
+
+    @Test
+    public void generator_overRange_yieldsEachNumber() {
+        this.ctx.setPrivilege(Privilege.ALL);
+        this.inputSuccess("""
+            r >> private: $range(1, 4)
+            a >> [ $r.. ]: $v * 2
+            """);
+        this.outputTrimmed("""
+            a: [
+              2
+              4
+              6
+            ]
+            """);
+    }
+
+    @Test
+    public void generator_withSeveralExpansions_expandsEachInOrder() {
+        this.inputSuccess("""
+            x >> private: [ a, b ]
+            y >> private: [ c ]
+            z >> [ $x.., d, $y.. ]: $v
+            """);
+        this.outputTrimmed("""
+            z: [
+              a
+              b
+              d
+              c
+            ]
+            """);
+    }
 }
@@ -1,6 +1,9 @@
 package xjs.jel.integration;
 
 import org.junit.jupiter.api.Test;
+import xjs.core.JsonValue;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public final class JsonPathIntegrationTest extends AbstractIntegrationTest {
 
@@ -137,6 +140,60 @@ public final class JsonPathIntegrationTest extends AbstractIntegrationTest {
             """);
     }
 
+    @Test
+    public void reference_whenCopyIsUpdated_doesNotUpdateSource() {
+        this.inputSuccess("""
+            a: { b: { c: 1 } }
+            x: $a
+            x.b.c >> set: 2
+            """);
+        this.outputTrimmed("""
+            a: { b: { c: 1 } }
+            x: { b: { c: 2 } }
+            """);
+    }
+
+    @Test
+    public void reference_whenSourceIsUpdated_doesNotUpdateCopy() {
+        this.inputSuccess("""
+            a: { b: [ 1 ] }
+            x: $a
+            a.b >> add: 2
+            """);
+        this.outputTrimmed("""
+            a: { b: [ 1, 2 ] }
+            x: { b: [ 1 ] }
+            """);
+    }
+
+    @Test
+    public void reference_inOutput_whenCopyIsModified_doesNotModifySource() {
+        this.inputSuccess("""
+            a: { b: { c: 1 } }
+            x: $a
+            """);
+        this.valueOut.asObject().get("x").asObject()
+            .get("b").asObject()
+            .set("c", 2);
+        this.outputTrimmed("""
+            a: { b: { c: 1 } }
+            x: { b: { c: 2 } }
+            """);
+    }
+
+    @Test
+    public void reference_inOutput_sharesNestedContainers() {
+        this.inputSuccess("""
+            a: { b: { c: 1 } }
+            x: $a
+            y: $a
+            """);
+        final JsonValue a = nested(this.valueOut, "a", "b");
+
+        assertSame(a, nested(this.valueOut, "x", "b"));
+        assertSame(a, nested(this.valueOut, "y", "b"));
+    }
+
     @Test
     public void reference_whenPathIsNotResolved_returnsNull() {
         this.inputSuccess("""
@@ -229,4 +286,12 @@ public final class JsonPathIntegrationTest extends AbstractIntegrationTest {
             """);
     }
 
+    // reads the references directly so that shared values are not copied
+    private static JsonValue nested(final JsonValue value, final String... keys) {
+        JsonValue v = value;
+        for (final String key : keys) {
+            v = v.asObject().getReference(key).getOnly();
+        }
+        return v;
+    }
 }
@@ -0,0 +1,50 @@
+package xjs.jel.lang;
+
+import org.junit.jupiter.api.Test;
+import xjs.core.Json;
+import xjs.core.JsonValue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class ArgumentBuffersTest {
+
+    @Test
+    public void take_afterRelease_reusesClearedBuffer() {
+        final ArgumentBuffers buffers = new ArgumentBuffers();
+        final JsonValue[] first = buffers.take(2);
+        first[0] = Json.value(1);
+        buffers.release(first);
+
+        final JsonValue[] second = buffers.take(2);
+        assertSame(first, second);
+        assertNull(second[0]);
+    }
+
+    @Test
+    public void take_beforeRelease_returnsNewBuffer() {
+        final ArgumentBuffers buffers = new ArgumentBuffers();
+        final JsonValue[] outer = buffers.take(1);
+
+        assertNotSame(outer, buffers.take(1));
+    }
+
+    @Test
+    public void release_withLargeArity_doesNotPoolBuffer() {
+        final ArgumentBuffers buffers = new ArgumentBuffers();
+        buffers.release(new JsonValue[ArgumentBuffers.MAX_ARITY]);
+
+        assertEquals(0, buffers.size(ArgumentBuffers.MAX_ARITY));
+    }
+
+    @Test
+    public void release_whenFull_dropsBuffer() {
+        final ArgumentBuffers buffers = new ArgumentBuffers();
+        for (int i = 0; i < ArgumentBuffers.MAX_FREE + 1; i++) {
+            buffers.release(new JsonValue[1]);
+        }
+        assertEquals(ArgumentBuffers.MAX_FREE, buffers.size(1));
+    }
+}
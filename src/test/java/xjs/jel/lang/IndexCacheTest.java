@@ -0,0 +1,112 @@
+package xjs.jel.lang;
+
+import org.junit.jupiter.api.Test;
+import xjs.core.Json;
+import xjs.core.JsonArray;
+import xjs.core.JsonObject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class IndexCacheTest {
+
+    @Test
+    public void find_onFrozenArray_afterThreshold_usesIndex() {
+        final IndexCache cache = new IndexCache(4);
+        final JsonArray array = rows(100);
+        cache.freeze(array);
+
+        for (int i = 0; i < IndexCache.SCAN_THRESHOLD; i++) {
+            cache.find(array, Json.object().add("id", i), 0);
+        }
+        assertSame(array.get(42), cache.find(array, Json.object().add("id", 42), 0));
+        assertEquals(IndexCache.SCAN_THRESHOLD, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void find_withIndex_returnsFirstMatch() {
+        final IndexCache cache = new IndexCache(4);
+        final JsonArray array = Json.array()
+            .add(Json.object().add("id", 1).add("name", "a"))
+            .add(Json.object().add("id", 2).add("name", "b"))
+            .add(Json.object().add("id", 2).add("name", "c"));
+        cache.freeze(array);
+
+        for (int i = 0; i < IndexCache.SCAN_THRESHOLD; i++) {
+            cache.find(array, Json.object().add("id", 1), 0);
+        }
+        assertSame(array.get(1), cache.find(array, Json.object().add("id", 2), 0));
+        assertSame(array.get(2), cache.find(array, Json.object().add("id", 2).add("name", "c"), 0));
+        assertNull(cache.find(array, Json.object().add("id", 3), 0));
+    }
+
+    @Test
+    public void find_onArrayWhichIsNotFrozen_alwaysScans() {
+        final IndexCache cache = new IndexCache(4);
+        final JsonArray array = rows(10);
+
+        for (int i = 0; i < IndexCache.SCAN_THRESHOLD + 1; i++) {
+            cache.find(array, Json.object().add("id", 1), 0);
+        }
+        final JsonObject replacement = Json.object().add("id", 1);
+        array.remove(1);
+        array.add(replacement);
+
+        assertSame(replacement, cache.find(array, Json.object().add("id", 1), 0));
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void find_onNestedFrozenArray_usesIndex() {
+        final IndexCache cache = new IndexCache(4);
+        final JsonObject data = Json.object().add("rows", rows(10));
+        final JsonArray array = data.get("rows").asArray();
+        cache.freeze(data);
+
+        for (int i = 0; i < IndexCache.SCAN_THRESHOLD; i++) {
+            cache.find(array, Json.object().add("id", 1), 0);
+        }
+        assertSame(array.get(5), cache.find(array, Json.object().add("id", 5), 0));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void find_onOutputArray_afterThreshold_usesIndex() {
+        final IndexCache cache = new IndexCache(4);
+        final JsonArray array = rows(10);
+        cache.freezeOutput(Json.object().add("rows", array));
+
+        for (int i = 0; i < IndexCache.SCAN_THRESHOLD; i++) {
+            cache.find(array, Json.object().add("id", 1), 0);
+        }
+        assertSame(array.get(5), cache.find(array, Json.object().add("id", 5), 0));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void find_onOutputArray_afterWrite_rebuildsIndex() {
+        final IndexCache cache = new IndexCache(4);
+        final JsonArray array = rows(10);
+        cache.freezeOutput(array);
+
+        for (int i = 0; i < IndexCache.SCAN_THRESHOLD + 1; i++) {
+            cache.find(array, Json.object().add("id", 1), 0);
+        }
+        final JsonObject replacement = Json.object().add("id", 1);
+        array.remove(1);
+        array.add(replacement);
+
+        assertSame(replacement, cache.find(array, Json.object().add("id", 1), 1));
+    }
+
+    private static JsonArray rows(final int size) {
+        final JsonArray array = Json.array();
+        for (int i = 0; i < size; i++) {
+            array.add(Json.object().add("id", i));
+        }
+        return array;
+    }
+}
@@ -0,0 +1,66 @@
+package xjs.jel.lang;
+
+import org.junit.jupiter.api.Test;
+import xjs.core.Json;
+import xjs.core.JsonArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class JelRangeTest {
+
+    @Test
+    public void range_computesElements_withoutStoringThem() {
+        final JelRange range = new JelRange(5, 1_000_000);
+
+        assertEquals(999_995, range.size());
+        assertTrue(range.isVirtual());
+        assertEquals(42, range.get(37).asInt());
+    }
+
+    @Test
+    public void set_onRange_keepsValue() {
+        final JelRange range = new JelRange(0, 3);
+        range.set(0, Json.value(9));
+
+        assertEquals(9, range.get(0).asInt());
+        assertTrue(Json.array(9, 1, 2).matches(range.copy(0)));
+    }
+
+    @Test
+    public void write_throughReference_keepsValue() {
+        final JelRange range = new JelRange(0, 3);
+        range.references().get(0).setOnly(Json.value(9));
+
+        assertSame(range.references().get(0), range.references().get(0));
+        assertEquals(9, range.get(0).asInt());
+        assertFalse(range.isVirtual());
+        assertTrue(Json.array(9, 1, 2).matches(range.copy(0)));
+    }
+
+    @Test
+    public void range_whenWritten_storesElements() {
+        final JelRange range = new JelRange(0, 3);
+        range.add(Json.value(10));
+
+        assertFalse(range.isVirtual());
+        assertTrue(Json.array(0, 1, 2, 10).matches(range));
+    }
+
+    @Test
+    public void copy_ofVirtualRange_isVirtual() {
+        final JelRange range = new JelRange(0, 3);
+        final JsonArray copy = range.copy(0);
+
+        assertTrue(copy instanceof JelRange);
+        assertTrue(((JelRange) copy).isVirtual());
+        assertTrue(range.matches(copy));
+    }
+
+    @Test
+    public void range_withMaxBelowMin_isEmpty() {
+        assertEquals(0, new JelRange(3, 1).size());
+    }
+}
@@ -0,0 +1,65 @@
+package xjs.jel.lang;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class PatternCacheTest {
+
+    @Test
+    public void compile_withSameRegex_returnsCachedPattern() {
+        final PatternCache cache = new PatternCache(4);
+        final Pattern first = cache.compile("\\d+");
+
+        assertSame(first, cache.compile("\\d+"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void compile_whenFull_evictsLeastRecentlyUsed() {
+        final PatternCache cache = new PatternCache(2);
+        final Pattern a = cache.compile("a");
+        cache.compile("b");
+        cache.compile("a");
+        cache.compile("c");
+
+        assertEquals(2, cache.size());
+        assertSame(a, cache.compile("a"));
+        cache.compile("b");
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void precompile_doesNotCountAsMiss() {
+        final PatternCache cache = new PatternCache(4);
+        cache.precompile("x+");
+
+        cache.compile("x+");
+        assertEquals(1, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    public void precompile_withInvalidRegex_isIgnored() {
+        final PatternCache cache = new PatternCache(4);
+        cache.precompile("(");
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void clear_resetsPatternsAndMetrics() {
+        final PatternCache cache = new PatternCache(4);
+        final Pattern first = cache.compile("y");
+        cache.clear();
+
+        assertNotSame(first, cache.compile("y"));
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getHits());
+    }
+}
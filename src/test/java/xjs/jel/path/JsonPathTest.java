@@ -7,10 +7,16 @@ import xjs.core.Json;
 import xjs.core.JsonContainer;
 import xjs.core.JsonLiteral;
 import xjs.core.JsonObject;
+import xjs.core.JsonReference;
 import xjs.core.JsonValue;
 import xjs.jel.JelContext;
 import xjs.jel.Privilege;
+import xjs.jel.exception.JelException;
+import xjs.jel.expression.Callable;
 import xjs.jel.expression.LiteralExpression;
+import xjs.jel.lang.CallableFacade;
+import xjs.jel.lang.JelObject;
+import xjs.jel.scope.ContainerAccessor;
 import xjs.serialization.token.ContainerToken;
 import xjs.serialization.token.NumberToken;
 import xjs.serialization.token.ParsedToken;
@@ -21,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class JsonPathTest {
@@ -218,6 +225,125 @@ public final class JsonPathTest {
         assertEquals(List.of(), path.getAll(c));
     }
 
+    @Test
+    public void getReference_withScalarPath_returnsReferenceFromContainer() {
+        final JsonObject inner = Json.object()
+            .add("k2", 1);
+        final JsonContainer c = Json.object()
+            .add("k1", inner);
+        final JsonPath path = path(key("k1"), key("k2"));
+
+        assertSame(inner.getReference("k2"), path.getReference(c));
+    }
+
+    @Test
+    public void getReference_whenParentIsReplaced_resolvesAgain() {
+        final JsonObject c = Json.object()
+            .add("k1", Json.object().add("k2", 1));
+        final JsonPath path = path(key("k1"), key("k2"));
+        path.getReference(c);
+
+        final JsonObject replacement = Json.object().add("k2", 2);
+        c.set("k1", replacement);
+
+        assertSame(replacement.getReference("k2"), path.getReference(c));
+    }
+
+    @Test
+    public void getReference_fromContainer_whenValueIsReplaced_resolvesAgain() {
+        final JsonObject inner = Json.object()
+            .add("k2", 1);
+        final JsonContainer c = Json.object()
+            .add("k1", inner);
+        final JsonPath path = path(key("k1"), key("k2"));
+        path.getReference(c);
+
+        inner.remove("k2");
+        inner.add("k2", 2);
+
+        assertSame(inner.getReference("k2"), path.getReference(c));
+    }
+
+    @Test
+    public void getReference_inScope_whenIntermediateIsReplaced_resolvesAgain() throws JelException {
+        final JelContext ctx = new JelContext(null);
+        final JsonObject outer = Json.object()
+            .add("k2", Json.object().add("k3", 1));
+        ctx.getScope().add("k1", new JsonReference(outer));
+        final JsonPath path = path(key("k1"), key("k2"), key("k3"));
+        path.getReference(ctx, ctx.getScope(), Json.object());
+
+        final JsonObject replacement = Json.object().add("k3", 2);
+        outer.set("k2", replacement);
+
+        final JsonReference ref = path.getReference(ctx, ctx.getScope(), Json.object());
+        assertSame(replacement.getReference("k3"), ref);
+        assertSame(ref, path.getReference(ctx, ctx.getScope(), Json.object()));
+    }
+
+    @Test
+    public void getReference_inScope_acrossGeneratorIterations_reusesPath() throws JelException {
+        final JelContext ctx = new JelContext(null);
+        final int[] lookups = new int[1];
+        final JelObject database = new JelObject() {
+            @Override
+            public JsonReference getDeclaredReference(final String key) {
+                lookups[0]++;
+                return super.getDeclaredReference(key);
+            }
+        };
+        database.add("host", "localhost");
+        ctx.getScope().add("config", new JsonReference(Json.object().add("database", database)));
+        final JsonPath path = path(key("config"), key("database"), key("host"));
+        lookups[0] = 0;
+
+        for (int i = 0; i < 3; i++) {
+            ctx.getScope().pushFrame();
+            ctx.getScope().add("i", new JsonReference(Json.value(i)));
+            assertEquals("localhost", path.get(ctx, ctx.getScope(), Json.object()).asString());
+            ctx.getScope().dropFrame();
+        }
+        assertEquals(1, lookups[0]);
+    }
+
+    @Test
+    public void get_withCallCache_doesNotMemoizeContainerReceiver() throws JelException {
+        final JelContext ctx = new JelContext(null);
+        ctx.setCallCacheSize(16);
+        final JsonObject c = Json.object()
+            .add("s", "value")
+            .add("a", Json.array(1, 2, 3));
+        final ContainerAccessor accessor = new ContainerAccessor(c);
+        path(key("s"), call("startsWith", Json.value("val"))).get(ctx, accessor, c);
+        path(key("a"), call("size")).get(ctx, accessor, c);
+
+        assertEquals(1, ctx.getCallCache().size());
+    }
+
+    @Test
+    public void get_withCall_whenCallableIsDeclaredLater_resolvesCallable() throws JelException {
+        final JelContext ctx = new JelContext(null);
+        final JsonPath path = path(call("t"));
+        path.get(ctx, ctx.getScope(), Json.object());
+
+        ctx.getScope().pushFrame();
+        final Callable t = (self, c, args) -> LiteralExpression.of(1);
+        ctx.getScope().add("t", new JsonReference(new CallableFacade(t)));
+
+        assertEquals(1, path.get(ctx, ctx.getScope(), Json.object()).asInt());
+    }
+
+    @Test
+    public void get_withKeyAfterIndexRange_getsValueFromEach() {
+        final JsonContainer c = Json.array()
+            .add(Json.object().add("a", 1))
+            .add(Json.object().add("a", 2))
+            .add(Json.object().add("a", 3));
+        final JsonPath path = path(range(0, 1), key("a"));
+
+        assertTrue(Json.array(1, 2).matches(path.get(c)));
+    }
+
     private static JsonPath path(final PathComponent... components) {
         return JsonPath.of(Arrays.asList(components));
     }
@@ -3,8 +3,11 @@ package xjs.jel.scope;
 import org.junit.jupiter.api.Test;
 import xjs.core.Json;
 import xjs.core.JsonReference;
+import xjs.jel.expression.LiteralExpression;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public final class ScopeTest {
 
@@ -76,6 +79,82 @@ public final class ScopeTest {
         assertEquals(2, scope.get("k").get().asInt());
     }
 
+    @Test
+    public void capture_doesNotSeeSubsequentDeclarations() {
+        final Scope scope = new Scope();
+        scope.add("k", new JsonReference(Json.value(1)));
+
+        final Scope capture = scope.capture();
+        scope.add("k", new JsonReference(Json.value(2)));
+        scope.add("j", new JsonReference(Json.value(3)));
+
+        assertEquals(1, capture.get("k").get().asInt());
+        assertNull(capture.get("j"));
+    }
+
+    @Test
+    public void capture_thenAdd_doesNotMutateOriginal() {
+        final Scope scope = new Scope();
+        scope.add("k", new JsonReference(Json.value(1)));
+
+        final Scope capture = scope.capture();
+        capture.add("k", new JsonReference(Json.value(2)));
+
+        assertEquals(1, scope.get("k").get().asInt());
+        assertEquals(2, capture.get("k").get().asInt());
+    }
+
+    @Test
+    public void capture_thenDropFrameInOriginal_preservesFrame() {
+        final Scope scope = new Scope();
+        scope.pushFrame();
+        scope.add("k", new JsonReference(Json.value(1)));
+
+        final Scope capture = scope.capture();
+        scope.dropFrame();
+        scope.add("k", new JsonReference(Json.value(2)));
+
+        assertEquals(1, capture.get("k").get().asInt());
+    }
+
+    @Test
+    public void dropFrame_afterNestedFrame_removesOuterDeclarations() {
+        final Scope scope = new Scope();
+        scope.pushFrame();
+        scope.pushFrame();
+        scope.dropFrame();
+        scope.add("k", new JsonReference(Json.value(1)));
+        scope.dropFrame();
+
+        assertNull(scope.get("k"));
+    }
+
+    @Test
+    public void dropFrame_thenPushFrame_clearsPreviousFrame() {
+        final Scope scope = new Scope();
+        scope.pushFrame();
+        scope.add("k", new JsonReference(Json.value(1)));
+        scope.dropFrame();
+        scope.pushFrame();
+
+        assertNull(scope.get("k"));
+        assertEquals(0, scope.localSize());
+    }
+
+    @Test
+    public void dropFrame_thenPushFrame_doesNotReuseCapturedFrame() {
+        final Scope scope = new Scope();
+        scope.pushFrame();
+        scope.add("k", new JsonReference(Json.value(1)));
+
+        final Scope capture = scope.capture();
+        scope.dropFrame();
+        scope.pushFrame();
+        scope.add("k", new JsonReference(Json.value(2)));
+
+        assertEquals(1, capture.get("k").get().asInt());
+    }
+
     @Test
     @SuppressWarnings("ConstantConditions")
     public void get_allowsAccessByIndex() {
@@ -110,4 +189,51 @@ public final class ScopeTest {
         scope.dropFrame();
         assertEquals(1, scope.get(0).get().asInt());
     }
+
+    @Test
+    public void pushFrame_withVariables_thenDropFrame_doesNotChangeStamp() {
+        final Scope scope = new Scope();
+        final int stamp = scope.getStamp();
+
+        scope.pushFrame();
+        scope.add("k", new JsonReference(Json.value(1)));
+        scope.dropFrame();
+
+        assertEquals(stamp, scope.getStamp());
+    }
+
+    @Test
+    public void addCallable_thenDropFrame_changesStamp() {
+        final Scope scope = new Scope();
+        final int initial = scope.getStamp();
+
+        scope.pushFrame();
+        scope.addCallable("c", (self, ctx, args) -> LiteralExpression.of(1));
+        final int added = scope.getStamp();
+        scope.dropFrame();
+
+        assertNotEquals(initial, added);
+        assertNotEquals(added, scope.getStamp());
+        assertNull(scope.getDefinedCallable("c"));
+    }
+
+    @Test
+    public void add_changesDeclarationStamp_ofKey() {
+        final Scope scope = new Scope();
+        final int initial = scope.getDeclarationStamp("k");
+
+        scope.add("k", new JsonReference(Json.value(1)));
+
+        assertNotEquals(initial, scope.getDeclarationStamp("k"));
+    }
+
+    @Test
+    public void add_withUnrelatedKey_doesNotChangeDeclarationStamp() {
+        final Scope scope = new Scope();
+        final int initial = scope.getDeclarationStamp("k");
+
+        scope.add("v", new JsonReference(Json.value(1)));
+
+        assertEquals(initial, scope.getDeclarationStamp("k"));
+    }
 }
@@ -0,0 +1,162 @@
+package xjs.jel.serialization.sequence;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import xjs.core.Json;
+import xjs.jel.JelContext;
+import xjs.jel.JelMember;
+import xjs.jel.exception.JelException;
+import xjs.jel.expression.ArithmeticExpression;
+import xjs.jel.expression.BooleanExpression;
+import xjs.jel.expression.LiteralExpression;
+import xjs.jel.expression.ReferenceExpression;
+import xjs.jel.sequence.Sequence;
+import xjs.serialization.Span;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public final class ConstantFolderTest {
+
+    private static final JelContext CTX = new JelContext(new File(""));
+
+    @Test
+    public void fold_replacesPureArithmetic_withLiteral() throws JelException {
+        final JelMember member = parseMember("a: 60 * 60 * 24");
+
+        final LiteralExpression.Folded folded =
+            assertInstanceOf(LiteralExpression.Folded.class, member.getExpression());
+        assertInstanceOf(ArithmeticExpression.class, folded.getSource());
+        assertEquals(Json.value(86400), folded.apply(CTX));
+    }
+
+    @Test
+    public void fold_replacesBooleanOverLiterals_withLiteral() throws JelException {
+        final JelMember member = parseMember("a: 1 < 2 && false");
+
+        final LiteralExpression.Folded folded =
+            assertInstanceOf(LiteralExpression.Folded.class, member.getExpression());
+        assertInstanceOf(BooleanExpression.class, folded.getSource());
+        assertEquals(Json.value(false), folded.apply(CTX));
+    }
+
+    @Test
+    public void fold_preservesSourceSpans() throws JelException {
+        final JelMember member = parseMember("a: 1 + 2 * 3");
+
+        final LiteralExpression.Folded folded =
+            assertInstanceOf(LiteralExpression.Folded.class, member.getExpression());
+        assertEquals(folded.getSource().start(), folded.start());
+        assertEquals(folded.getSource().end(), folded.end());
+        assertEquals(folded.getSource().flatten(), folded.flatten());
+    }
+
+    @Test
+    public void fold_returnsNewValue_onEachCall() throws JelException {
+        final JelMember member = parseMember("a: 2 * 3");
+
+        final LiteralExpression exp =
+            assertInstanceOf(LiteralExpression.class, member.getExpression());
+        assertEquals(exp.apply(CTX), exp.apply(CTX));
+        assertNotSame(exp.apply(CTX), exp.apply(CTX));
+    }
+
+    @Test
+    public void fold_whenExpressionHasReferences_doesNotFold() throws JelException {
+        final JelMember member = parseMember("a: $b * 2");
+
+        assertInstanceOf(ArithmeticExpression.class, member.getExpression());
+    }
+
+    @Test
+    public void fold_whenExpressionThrows_doesNotFold() throws JelException {
+        final JelMember member = parseMember("a: 1 / 0");
+
+        assertInstanceOf(ArithmeticExpression.class, member.getExpression());
+    }
+
+    @Test
+    public void fold_replacesConstantOperand_inOperatorExpression() throws JelException {
+        final JelMember member = parseMember("a: $b * (60 * 60)");
+
+        final ArithmeticExpression exp =
+            assertInstanceOf(ArithmeticExpression.class, member.getExpression());
+        final LiteralExpression.Folded folded = findFolded(exp);
+        assertNotNull(folded);
+        assertEquals(Json.value(3600), folded.apply(CTX));
+    }
+
+    @Test
+    public void fold_replacesConstantArgument_inTupleExpression() throws JelException {
+        final JelMember member = parseMember("a: $f($b, 2 * 3)");
+
+        assertInstanceOf(ReferenceExpression.class, member.getExpression());
+        final LiteralExpression.Folded folded = findFolded((Span<?>) member.getExpression());
+        assertNotNull(folded);
+        assertEquals(Json.value(6), folded.apply(CTX));
+    }
+
+    @Test
+    public void fold_replacesConstantOperand_inGeneratorOutput() throws JelException {
+        final JelMember member = parseMember("a >> [ 1, 2, 3 ]: $v * (2 + 3)");
+
+        final ArithmeticExpression exp =
+            assertInstanceOf(ArithmeticExpression.class, member.getExpression());
+        final LiteralExpression.Folded folded = findFolded(exp);
+        assertNotNull(folded);
+        assertEquals(Json.value(5), folded.apply(CTX));
+    }
+
+    @Test
+    public void fold_nestedExpression_preservesSourceSpans() throws JelException {
+        final JelMember member = parseMember("a: $b * (1 + 2 * 3)");
+
+        final LiteralExpression.Folded folded = findFolded((Span<?>) member.getExpression());
+        assertNotNull(folded);
+        assertEquals(folded.getSource().start(), folded.start());
+        assertEquals(folded.getSource().end(), folded.end());
+        assertEquals(folded.getSource().flatten(), folded.flatten());
+    }
+
+    @Test
+    public void fold_whenNestedExpressionHasReferences_doesNotFold() throws JelException {
+        final JelMember member = parseMember("a: 2 * ($b + 1)");
+
+        assertNull(findFolded((Span<?>) member.getExpression()));
+    }
+
+    private static @Nullable LiteralExpression.Folded findFolded(final Span<?> span) {
+        if (span instanceof LiteralExpression.Folded) {
+            return (LiteralExpression.Folded) span;
+        } else if (span instanceof JelMember
+                && ((JelMember) span).getExpression() instanceof LiteralExpression.Folded) {
+            return (LiteralExpression.Folded) ((JelMember) span).getExpression();
+        } else if (span instanceof Sequence<?>) {
+            for (final Span<?> sub : ((Sequence<?>) span).spans()) {
+                final LiteralExpression.Folded folded = findFolded(sub);
+                if (folded != null) {
+                    return folded;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static JelMember parseMember(final String text) throws JelException {
+        final Sequence<?> parsed = Sequencer.JEL.parse(text);
+        JelMember member = null;
+        for (final Span<?> span : parsed.spans()) {
+            if (span instanceof JelMember) {
+                member = (JelMember) span;
+                break;
+            }
+        }
+        assertNotNull(member);
+        return member;
+    }
+}
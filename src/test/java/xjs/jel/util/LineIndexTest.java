@@ -0,0 +1,49 @@
+package xjs.jel.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class LineIndexTest {
+
+    @Test
+    public void getLines_matchesEachTerminator() {
+        final LineIndex index = LineIndex.of("a\nbb\r\nccc\rd");
+
+        assertEquals(4, index.size());
+        assertEquals(List.of("a", "bb", "ccc", "d"), index.getLines(0, 3));
+    }
+
+    @Test
+    public void size_doesNotCountTrailingTerminator() {
+        assertEquals(2, LineIndex.of("a\nb\n").size());
+        assertEquals(0, LineIndex.of("").size());
+    }
+
+    @Test
+    public void getLines_outOfBounds_isTruncated() {
+        final LineIndex index = LineIndex.of("a\nb");
+
+        assertEquals(List.of("b"), index.getLines(1, 5));
+    }
+
+    @Test
+    public void lineOf_findsLineContainingOffset() {
+        final LineIndex index = LineIndex.of("ab\ncd\nef");
+
+        assertEquals(0, index.lineOf(0));
+        assertEquals(0, index.lineOf(2));
+        assertEquals(1, index.lineOf(3));
+        assertEquals(2, index.lineOf(7));
+    }
+
+    @Test
+    public void startOf_outOfBounds_returnsNegative() {
+        final LineIndex index = LineIndex.of("ab\ncd");
+
+        assertEquals(3, index.startOf(1));
+        assertEquals(-1, index.startOf(2));
+    }
+}